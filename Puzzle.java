@@ -1,9 +1,33 @@
 
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
 import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.lang.Math;
 import java.util.List;
 import java.util.PriorityQueue;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
 
 
 public class Puzzle {
@@ -11,9 +35,10 @@ public class Puzzle {
     //function to print puzzle
     public static void printPuzzle(int [] puzzle) {
         if(puzzle != null) {
-            for(int x = 0; x < 9; x++) {
+            int width = BoardSize.widthOf(puzzle.length);
+            for(int x = 0; x < puzzle.length; x++) {
                 System.out.print(puzzle[x]+ " ");
-                if(x == 2 || x == 5)
+                if(x % width == width - 1 && x < puzzle.length - 1)
                     System.out.println();
             }
         }
@@ -23,20 +48,164 @@ public class Puzzle {
 
     //function to generate a random 8-puzzle
     public static int [] randomPuzzle() {
-        //initialize list with solution state
-        List<Integer> puzzle = Arrays.asList(0,1,2,3,4,5,6,7,8);
-
-        //shuffle elements
-        Collections.shuffle(puzzle);
+        return randomPuzzle(new Random());
+    }
 
-        //copy list elements into array
-        int [] randomPuzzle = new int [puzzle.size()];
-        for(int i = 0; i < puzzle.size(); i++)
-            randomPuzzle[i] = puzzle.get(i);
+    //function to generate a random 8-puzzle from a given random source
+    public static int [] randomPuzzle(Random random) {
+        return randomPuzzle(random, 3);
+    }
 
+    //function to generate a random puzzle of a given width from a given random source, solvable or not
+    public static int [] randomPuzzle(Random random, int width) {
+        //shuffle the solution state in place
+        int [] randomPuzzle = new int [BoardSize.of(width).cells];
+        for(int i = 0; i < randomPuzzle.length; i++)
+            randomPuzzle[i] = i;
+        for(int i = randomPuzzle.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tile = randomPuzzle[i];
+            randomPuzzle[i] = randomPuzzle[j];
+            randomPuzzle[j] = tile;
+        }
         return randomPuzzle;
     }
 
+    //seeded generator of uniformly random solvable puzzles of a size
+    //a shuffle that lands on an unsolvable puzzle swaps two tiles instead of drawing again, which pairs every
+    //unsolvable puzzle with one solvable puzzle of the same blank position, so all solvable puzzles stay equally likely
+    public static class InstanceGenerator {
+
+        //seed of the generated data files
+        public static final long DEFAULT_SEED = 8;
+
+        //attributes
+        private final BoardSize size;
+        private final SplittableRandom random;
+        private final int [] tiles;
+
+        //ranks of the 8-puzzles at each solution depth, built on first use of exact depth sampling
+        private static int [][] ranksByDepth;
+
+        //constructor, an unseeded generator draws its seed from the clock
+        public InstanceGenerator(BoardSize size) {
+            this(size, System.nanoTime());
+        }
+
+        public InstanceGenerator(BoardSize size, long seed) {
+            this.size = size;
+            this.random = new SplittableRandom(seed);
+            this.tiles = new int [size.cells];
+        }
+
+        //function to generate a packed solvable puzzle
+        public long next() {
+            //shuffle the solution state, counting the swaps for the parity of the permutation
+            int [] t = tiles;
+            for(int i = 0; i < t.length; i++)
+                t[i] = i;
+            int swaps = 0;
+            for(int i = t.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                if(j == i) continue;
+                int tile = t[i];
+                t[i] = t[j];
+                t[j] = tile;
+                swaps++;
+            }
+
+            //moving the blank to the front takes one swap per cell it passes, what is left is the parity of the tile inversions
+            //on an even width the blank's row is added like in isSolvable
+            int blank = 0;
+            while(t[blank] != 0) blank++;
+            int parity = swaps + blank + (size.width % 2 == 0 ? blank / size.width : 0);
+            if(parity % 2 != 0) {
+                int first = blank == 0 ? 1 : 0;
+                int second = blank <= 1 ? 2 : 1;
+                int tile = t[first];
+                t[first] = t[second];
+                t[second] = tile;
+            }
+
+            long board = 0;
+            for(int i = 0; i < t.length; i++)
+                board |= ((long) t[i]) << (i << 2);
+            return board;
+        }
+
+        //function to generate a solvable puzzle configuration
+        public int [] nextPuzzle() {
+            return unpackPuzzle(next(), size);
+        }
+
+        //function to generate a packed 8-puzzle of an exact solution depth, uniformly among the puzzles of that depth
+        public long next(int depth) {
+            requireEightPuzzle(size, "Exact depth sampling");
+            int [][] ranks = ranksByDepth();
+            if(depth < 0 || depth >= ranks.length) throw new IllegalArgumentException("No 8-puzzle has solution depth "+depth);
+            return DistanceTable.unrank(ranks[depth][random.nextInt(ranks[depth].length)]);
+        }
+
+        //function to group the ranks of all solvable 8-puzzles by solution depth
+        private static synchronized int [][] ranksByDepth() {
+            if(ranksByDepth == null) {
+                int [] counts = new int [64];
+                int maxDepth = 0;
+                for(int rank = 0; rank < DistanceTable.STATES; rank++) {
+                    int depth = DistanceTable.distanceOfRank(rank);
+                    counts[depth]++;
+                    maxDepth = Math.max(maxDepth, depth);
+                }
+                int [][] ranks = new int [maxDepth + 1][];
+                for(int depth = 0; depth <= maxDepth; depth++)
+                    ranks[depth] = new int [counts[depth]];
+                Arrays.fill(counts, 0);
+                for(int rank = 0; rank < DistanceTable.STATES; rank++) {
+                    int depth = DistanceTable.distanceOfRank(rank);
+                    ranks[depth][counts[depth]++] = rank;
+                }
+                ranksByDepth = ranks;
+            }
+            return ranksByDepth;
+        }
+
+        //function to write puzzles one per line as space separated tiles, the input format of batch mode
+        //a negative depth writes puzzles of any depth
+        public void write(Writer out, long count, int depth) throws IOException {
+            char [] line = new char [size.cells * 3];
+            for(long n = 0; n < count; n++) {
+                long board = depth < 0 ? next() : next(depth);
+                int length = 0;
+                for(int i = 0; i < size.cells; i++) {
+                    int tile = tileAt(board, i);
+                    if(i > 0) line[length++] = ' ';
+                    if(tile >= 10) line[length++] = '1';
+                    line[length++] = (char) ('0' + tile % 10);
+                }
+                line[length++] = '\n';
+                out.write(line, 0, length);
+            }
+        }
+
+        //function to write puzzles to a file, replacing it
+        public void write(String fileName, long count, int depth) throws IOException {
+            try (Writer out = Files.newBufferedWriter(Paths.get(fileName), StandardCharsets.US_ASCII)) {
+                write(out, count, depth);
+            }
+        }
+    }
+
+    //function to validate a long
+    public static boolean isLong(String s) {
+        boolean isValid = false;
+        try {
+            Long.parseLong(s);
+            isValid = true;
+        }
+        catch (NumberFormatException e){}
+        return isValid;
+    }
+
     //function to validate an int
     public static boolean isInt(String s) {
         boolean isValid = false;
@@ -50,20 +219,25 @@ public class Puzzle {
 
     //function to validate user input
     public static boolean isValidPuzzle(String input) {
+        return isValidPuzzle(input, 3);
+    }
+
+    //function to validate user input for a puzzle of a given width
+    public static boolean isValidPuzzle(String input, int width) {
         //split user input at each space
         String [] elements = input.split(" ");
 
         //check for valid size
-        if(elements.length != 9) return false;
+        if(!BoardSize.isSupported(width) || elements.length != width * width) return false;
 
         //array to track ints used
-        boolean [] intsUsed = {false,false,false,false,false,false,false,false,false};
+        boolean [] intsUsed = new boolean [elements.length];
 
         //check each element is a valid int
         for(String element: elements) {
             if(isInt(element)) {
                 int userInt = Integer.parseInt(element);
-                if( (userInt > 8) || (userInt < 0) || intsUsed[userInt]) return false;
+                if( (userInt >= elements.length) || (userInt < 0) || intsUsed[userInt]) return false;
                 intsUsed[userInt] = true;
             }
             else return false;
@@ -94,15 +268,21 @@ public class Puzzle {
             }
 
             //convert string to int array
-            String [] numbers = input.split(" ");
-            customPuzzle = new int [9];
-            for(int i = 0; i < numbers.length; i++)
-                customPuzzle[i] = Integer.parseInt(numbers[i]);
+            customPuzzle = parsePuzzle(input);
         }
 
         return customPuzzle;
     }
 
+    //function to convert a valid puzzle input to an int array
+    public static int [] parsePuzzle(String input) {
+        String [] numbers = input.split(" ");
+        int [] puzzle = new int [numbers.length];
+        for(int i = 0; i < numbers.length; i++)
+            puzzle[i] = Integer.parseInt(numbers[i]);
+        return puzzle;
+    }
+
     //function to that determines if an puzzle is solvable
     public static boolean isSolvable(int [] puzzle) {
 
@@ -110,16 +290,23 @@ public class Puzzle {
 
         //return false if puzzle is null
         if(puzzle != null){
+            int width = BoardSize.widthOf(puzzle.length);
             int inversions = 0;
+            int blankRow = 0;
             //compare every number with every other number, skip empty space, count inversion
-            for(int x = 0; x < 8; x++) {
-                if(puzzle[x] == 0) continue;
-                for(int y = x+1; y < 9; y++) {
+            for(int x = 0; x < puzzle.length; x++) {
+                if(puzzle[x] == 0) {
+                    blankRow = x / width;
+                    continue;
+                }
+                for(int y = x+1; y < puzzle.length; y++) {
                     if(puzzle[y] == 0) continue;
                     if(puzzle[x] > puzzle[y]) inversions++;
                 }
             }
-            if(inversions % 2 == 0) isSolvable = true;
+            //on an even width a vertical move changes the inversion parity along with the blank's row
+            if(width % 2 == 0) inversions += blankRow;
+            if(width > 0 && inversions % 2 == 0) isSolvable = true;
         }
         return isSolvable;
     }
@@ -128,7 +315,7 @@ public class Puzzle {
     public static int h1(int [] puzzle) {
         int sum = 0;
         if(puzzle != null)
-            for(int x = 0; x < 9; x++) {
+            for(int x = 0; x < puzzle.length; x++) {
                 if (puzzle[x] == 0) continue;
                 if (puzzle[x] != x)
                     sum++;
@@ -139,18 +326,433 @@ public class Puzzle {
     //function to calculate manhattan distance
     public static int h2(int [] puzzle) {
         int sum = 0;
-        if(puzzle != null)
-            for(int i = 0; i < 9; i++) {
+        if(puzzle != null) {
+            int width = BoardSize.widthOf(puzzle.length);
+            for(int i = 0; i < puzzle.length; i++) {
                 int tileVal = puzzle[i];
                 if(tileVal == 0) continue;
-                int h = Math.abs(i%3 - tileVal%3);
-                int v = Math.abs(tileVal/3 - i/3);
+                int h = Math.abs(i%width - tileVal%width);
+                int v = Math.abs(tileVal/width - i/width);
                 sum += h+v;
             }
+        }
+        return sum;
+    }
+
+    //geometry of a square sliding puzzle, its move table, heuristic tables and solution state
+    //puzzles are packed 4 bits per cell into a long, so widths 2 to 4 fit, up to the 15-puzzle
+    public static class BoardSize {
+
+        public static final int MIN_WIDTH = 2;
+        public static final int MAX_WIDTH = 4;
+        private static final BoardSize [] SIZES = new BoardSize [MAX_WIDTH + 1];
+        static {
+            for(int width = MIN_WIDTH; width <= MAX_WIDTH; width++)
+                SIZES[width] = new BoardSize(width);
+        }
+
+        //attributes
+        public final int width;
+        public final int cells;
+        public final long solution;
+
+        //position the blank space moves to for each blank position and direction, -1 if illegal
+        public final int [][] neighbors;
+
+        //each tile's misplaced count and manhattan distance at each position
+        public final int [][] misplaced;
+        public final int [][] manhattan;
+
+        //constructor
+        private BoardSize(int width) {
+            this.width = width;
+            this.cells = width * width;
+            this.neighbors = new int [cells][4];
+            this.misplaced = new int [cells][cells];
+            this.manhattan = new int [cells][cells];
+            //pack the solution state here, this class must not depend on the static state of Puzzle
+            long solution = 0;
+            for(int pos = 0; pos < cells; pos++) {
+                solution |= ((long) pos) << (pos << 2);
+                neighbors[pos][LEFT] = pos%width != 0 ? pos-1 : -1;
+                neighbors[pos][RIGHT] = pos%width != width-1 ? pos+1 : -1;
+                neighbors[pos][UP] = pos >= width ? pos-width : -1;
+                neighbors[pos][DOWN] = pos < cells-width ? pos+width : -1;
+            }
+            for(int tile = 1; tile < cells; tile++)
+                for(int pos = 0; pos < cells; pos++) {
+                    misplaced[tile][pos] = tile != pos ? 1 : 0;
+                    manhattan[tile][pos] = Math.abs(pos%width - tile%width) + Math.abs(tile/width - pos/width);
+                }
+            this.solution = solution;
+        }
+
+        //function to get the geometry of a puzzle width
+        public static BoardSize of(int width) {
+            if(!isSupported(width)) throw new IllegalArgumentException("Unsupported puzzle width: "+width);
+            return SIZES[width];
+        }
+
+        //function to check that a puzzle width fits a packed puzzle
+        public static boolean isSupported(int width) {
+            return width >= MIN_WIDTH && width <= MAX_WIDTH;
+        }
+
+        //function to get the width of a puzzle with a number of cells, -1 if it is not a supported square
+        public static int widthOf(int cells) {
+            for(int width = MIN_WIDTH; width <= MAX_WIDTH; width++)
+                if(width * width == cells) return width;
+            return -1;
+        }
+    }
+
+    //the 8-puzzle's geometry, the default throughout
+    public static final BoardSize EIGHT_PUZZLE = BoardSize.of(3);
+
+    //tables of each 8-puzzle tile's misplaced count and manhattan distance at each position
+    public static final int [][] MISPLACED = EIGHT_PUZZLE.misplaced;
+    public static final int [][] MANHATTAN = EIGHT_PUZZLE.manhattan;
+
+    //function to calculate number of misplaced tiles of a packed puzzle
+    public static int h1(long board) {
+        return h1(board, EIGHT_PUZZLE);
+    }
+
+    //function to calculate number of misplaced tiles of a packed puzzle of a given size
+    public static int h1(long board, BoardSize size) {
+        int sum = 0;
+        for(int i = 0; i < size.cells; i++)
+            sum += size.misplaced[tileAt(board, i)][i];
         return sum;
     }
 
-    //function to calculate heuristic h1 or h2
+    //function to calculate manhattan distance of a packed puzzle
+    public static int h2(long board) {
+        return h2(board, EIGHT_PUZZLE);
+    }
+
+    //function to calculate manhattan distance of a packed puzzle of a given size
+    public static int h2(long board, BoardSize size) {
+        int sum = 0;
+        for(int i = 0; i < size.cells; i++)
+            sum += size.manhattan[tileAt(board, i)][i];
+        return sum;
+    }
+
+    //function to calculate manhattan distance plus linear conflicts of a packed puzzle
+    public static int h5(long board) {
+        return h5(board, EIGHT_PUZZLE);
+    }
+
+    //function to calculate manhattan distance plus linear conflicts of a packed puzzle of a given size
+    //tiles in their goal row or column but in reverse order must pass each other, two extra moves for each tile that leaves the line
+    public static int h5(long board, BoardSize size) {
+        return h2(board, size) + LinearConflict.conflicts(board, size);
+    }
+
+    //linear conflict tables, per width the conflicts of each row and each column indexed by its tiles packed 4 bits per cell
+    public static class LinearConflict {
+
+        private static final byte [][][] ROWS = new byte [BoardSize.MAX_WIDTH + 1][][];
+        private static final byte [][][] COLUMNS = new byte [BoardSize.MAX_WIDTH + 1][][];
+        static {
+            for(int width = BoardSize.MIN_WIDTH; width <= BoardSize.MAX_WIDTH; width++) {
+                ROWS[width] = new byte [width][];
+                COLUMNS[width] = new byte [width][];
+                for(int line = 0; line < width; line++) {
+                    ROWS[width][line] = build(width, line, true);
+                    COLUMNS[width][line] = build(width, line, false);
+                }
+            }
+        }
+
+        //function to calculate the linear conflicts of a packed puzzle of a given size
+        public static int conflicts(long board, BoardSize size) {
+            int width = size.width;
+            byte [][] rows = ROWS[width];
+            byte [][] columns = COLUMNS[width];
+            int sum = 0;
+            for(int line = 0; line < width; line++)
+                sum += rows[line][row(board, line, width)] + columns[line][column(board, line, width)];
+            return sum;
+        }
+
+        //function to calculate the change in linear conflicts after a tile slides from one position to another
+        //a horizontal move keeps the order of the tiles in its row and only changes the tile's goal column if it leaves or
+        //enters it, tiles of other lines count as blanks, and the reverse for a vertical move
+        public static int change(long leafBoard, int tile, int from, int to, BoardSize size) {
+            int width = size.width;
+            //the parent had the tile where the leaf has the blank
+            long parentBoard = leafBoard ^ ((long) tile << (from << 2)) ^ ((long) tile << (to << 2));
+            if(from/width == to/width) {
+                int line = tile % width;
+                if(from%width != line && to%width != line) return 0;
+                byte [] column = COLUMNS[width][line];
+                return column[column(leafBoard, line, width)] - column[column(parentBoard, line, width)];
+            }
+            int line = tile / width;
+            if(from/width != line && to/width != line) return 0;
+            byte [] row = ROWS[width][line];
+            return row[row(leafBoard, line, width)] - row[row(parentBoard, line, width)];
+        }
+
+        //function to get the tiles of a row packed 4 bits per cell
+        private static int row(long board, int row, int width) {
+            return (int) (board >>> (row * width << 2)) & ((1 << (width << 2)) - 1);
+        }
+
+        //function to get the tiles of a column packed 4 bits per cell
+        private static int column(long board, int column, int width) {
+            long cells = board >>> (column << 2);
+            int tiles = 0;
+            for(int i = 0; i < width; i++)
+                tiles |= (int) (cells >>> (i * (width - 1) << 2)) & (0xF << (i << 2));
+            return tiles;
+        }
+
+        //function to build the conflicts of a row or column for every packing of its tiles
+        //the tiles that can stay in the line are its longest run of increasing goals, the others must leave it
+        private static byte [] build(int width, int line, boolean row) {
+            byte [] table = new byte [1 << (width << 2)];
+            int [] goals = new int [width];
+            int [] longest = new int [width];
+            for(int tiles = 0; tiles < table.length; tiles++) {
+                int count = 0;
+                int kept = 0;
+                for(int i = 0; i < width; i++) {
+                    int tile = tiles >>> (i << 2) & 0xF;
+                    if(tile == 0 || tile >= width * width || (row ? tile / width : tile % width) != line) continue;
+                    goals[count] = row ? tile % width : tile / width;
+                    longest[count] = 1;
+                    for(int j = 0; j < count; j++)
+                        if(goals[j] < goals[count] && longest[j] + 1 > longest[count]) longest[count] = longest[j] + 1;
+                    kept = Math.max(kept, longest[count]);
+                    count++;
+                }
+                table[tiles] = (byte) (2 * (count - kept));
+            }
+            return table;
+        }
+    }
+
+    //function to calculate the walking distance of a packed puzzle
+    public static int h6(long board) {
+        return WalkingDistance.h6(board, EIGHT_PUZZLE);
+    }
+
+    //function to calculate the walking distance of a packed puzzle of a given size
+    public static int h6(long board, BoardSize size) {
+        return WalkingDistance.h6(board, size);
+    }
+
+    //walking distance tables, the fewest vertical moves that bring every tile to its goal row when tiles are told
+    //apart only by their goal row, plus the same for columns, built by breadth first search from the solution state
+    //the solution state is symmetric about its main diagonal, so one table per width serves rows and columns
+    public static class WalkingDistance {
+
+        //per width, each tile's base width + 1 place value of its goal row and goal column, 0 for the blank
+        private static final int [][] ROW_PLACES = new int [BoardSize.MAX_WIDTH + 1][];
+        private static final int [][] COLUMN_PLACES = new int [BoardSize.MAX_WIDTH + 1][];
+
+        //per width, the id of each line's goal row counts, a line holds width tiles or width - 1 and the blank,
+        //and the distances indexed by the base id count ids of all lines but the last, which the others determine
+        private static final int [][] LINE_IDS = new int [BoardSize.MAX_WIDTH + 1][];
+        private static final int [] LINE_COUNTS = new int [BoardSize.MAX_WIDTH + 1];
+        private static final byte [][] TABLES = new byte [BoardSize.MAX_WIDTH + 1][];
+        static {
+            for(int width = BoardSize.MIN_WIDTH; width <= BoardSize.MAX_WIDTH; width++)
+                build(width);
+        }
+
+        //function to calculate the walking distance of a packed puzzle of a given size
+        public static int h6(long board, BoardSize size) {
+            int width = size.width;
+            int [] rowPlaces = ROW_PLACES[width];
+            int [] columnPlaces = COLUMN_PLACES[width];
+            int [] ids = LINE_IDS[width];
+            int lineCount = LINE_COUNTS[width];
+            int rowIndex = 0;
+            int columnIndex = 0;
+            for(int line = 0; line < width - 1; line++) {
+                int rowKey = 0;
+                int columnKey = 0;
+                for(int i = 0; i < width; i++) {
+                    rowKey += rowPlaces[tileAt(board, line * width + i)];
+                    columnKey += columnPlaces[tileAt(board, i * width + line)];
+                }
+                rowIndex = rowIndex * lineCount + ids[rowKey];
+                columnIndex = columnIndex * lineCount + ids[columnKey];
+            }
+            byte [] table = TABLES[width];
+            return table[rowIndex] + table[columnIndex];
+        }
+
+        //function to build the tables of a width
+        private static void build(int width) {
+            int cells = width * width;
+            int [] places = new int [width + 1];
+            places[0] = 1;
+            for(int i = 1; i <= width; i++)
+                places[i] = places[i - 1] * (width + 1);
+            ROW_PLACES[width] = new int [cells];
+            COLUMN_PLACES[width] = new int [cells];
+            for(int tile = 1; tile < cells; tile++) {
+                ROW_PLACES[width][tile] = places[tile / width];
+                COLUMN_PLACES[width][tile] = places[tile % width];
+            }
+
+            //number the lines of width or width - 1 tiles, keyed by their base width + 1 goal row counts
+            int [] ids = new int [places[width]];
+            int [] keys = new int [places[width]];
+            int lineCount = 0;
+            for(int key = 0; key < ids.length; key++) {
+                int tiles = 0;
+                for(int k = 0; k < width; k++)
+                    tiles += key / places[k] % (width + 1);
+                ids[key] = -1;
+                if(tiles == width || tiles == width - 1) {
+                    ids[key] = lineCount;
+                    keys[lineCount++] = key;
+                }
+            }
+            LINE_IDS[width] = ids;
+            LINE_COUNTS[width] = lineCount;
+
+            //every goal row has width tiles but the first, which has the blank
+            int total = 0;
+            int [] lines = new int [width];
+            for(int r = 0; r < width; r++) {
+                lines[r] = (r == 0 ? width - 1 : width) * places[r];
+                total += lines[r];
+            }
+            int size = 1;
+            for(int r = 0; r < width - 1; r++)
+                size *= lineCount;
+            byte [] table = new byte [size];
+            Arrays.fill(table, (byte) -1);
+            int [] queue = new int [size];
+            int head = 0;
+            int tail = 0;
+            int start = index(lines, ids, lineCount, width);
+            table[start] = 0;
+            queue[tail++] = start;
+
+            //breadth first search, the blank's line trades places with a tile of a neighboring line
+            while(head < tail) {
+                int index = queue[head++];
+                int rest = total;
+                for(int r = width - 2; r >= 0; r--, index /= lineCount) {
+                    lines[r] = keys[index % lineCount];
+                    rest -= lines[r];
+                }
+                lines[width - 1] = rest;
+                int depth = table[queue[head - 1]];
+                int blank = 0;
+                for(int r = 0; r < width; r++) {
+                    int tiles = 0;
+                    for(int k = 0; k < width; k++)
+                        tiles += lines[r] / places[k] % (width + 1);
+                    if(tiles == width - 1) blank = r;
+                }
+                for(int r = blank - 1; r <= blank + 1; r += 2) {
+                    if(r < 0 || r >= width) continue;
+                    for(int k = 0; k < width; k++) {
+                        if(lines[r] / places[k] % (width + 1) == 0) continue;
+                        lines[r] -= places[k];
+                        lines[blank] += places[k];
+                        int next = index(lines, ids, lineCount, width);
+                        if(table[next] < 0) {
+                            table[next] = (byte) (depth + 1);
+                            queue[tail++] = next;
+                        }
+                        lines[r] += places[k];
+                        lines[blank] -= places[k];
+                    }
+                }
+            }
+            TABLES[width] = table;
+        }
+
+        //function to get the table index of lines keyed by their goal row counts
+        private static int index(int [] lines, int [] ids, int lineCount, int width) {
+            int index = 0;
+            for(int r = 0; r < width - 1; r++)
+                index = index * lineCount + ids[lines[r]];
+            return index;
+        }
+    }
+
+    //function to calculate a leaf's heuristic from its parent's after a tile slides from one position to another
+    public static int leafHeuristic(int parentHeuristic, long leafBoard, int tile, int from, int to, int x) {
+        return leafHeuristic(parentHeuristic, leafBoard, tile, from, to, x, EIGHT_PUZZLE);
+    }
+
+    //function to calculate a leaf's heuristic from its parent's on a puzzle of a given size
+    public static int leafHeuristic(int parentHeuristic, long leafBoard, int tile, int from, int to, int x, BoardSize size) {
+        switch (x) {
+            case 1:
+                return parentHeuristic - size.misplaced[tile][from] + size.misplaced[tile][to];
+            case 2:
+                return parentHeuristic - size.manhattan[tile][from] + size.manhattan[tile][to];
+            case 5:
+                return parentHeuristic - size.manhattan[tile][from] + size.manhattan[tile][to] + LinearConflict.change(leafBoard, tile, from, to, size);
+            default:
+                return heuristicX(leafBoard, x, size);
+        }
+    }
+
+    //function to calculate the additive pattern database heuristic of a packed puzzle
+    public static int h3(long board) {
+        return PatternDatabase.h3(board);
+    }
+
+    //function to calculate the exact solution depth of a packed puzzle
+    public static int h4(long board) {
+        return DistanceTable.distance(board);
+    }
+
+    //function to check that a heuristic option exists
+    public static boolean isHeuristic(int x) {
+        return x >= 1 && x <= 6;
+    }
+
+    //function to calculate heuristic h1 to h6 of a packed puzzle
+    public static int heuristicX(long board, int x) {
+        return heuristicX(board, x, EIGHT_PUZZLE);
+    }
+
+    //function to calculate heuristic h1 to h6 of a packed puzzle of a given size
+    //the pattern database and distance table only cover the 8-puzzle
+    public static int heuristicX(long board, int x, BoardSize size) {
+        int h = -1;
+        switch (x) {
+            case 1:
+                h = h1(board, size);
+                break;
+            case 2:
+                h = h2(board, size);
+                break;
+            case 3:
+                requireEightPuzzle(size, "H3");
+                h = h3(board);
+                break;
+            case 4:
+                requireEightPuzzle(size, "H4");
+                h = h4(board);
+                break;
+            case 5:
+                h = h5(board, size);
+                break;
+            case 6:
+                h = h6(board, size);
+                break;
+            default:
+                break;
+        }
+        return h;
+    }
+
+    //function to calculate heuristic h1 to h6
     public static int heuristicX(int [] configuration, int x) {
         int h = -1;
         switch (x) {
@@ -160,360 +762,4256 @@ public class Puzzle {
             case 2:
                 h = h2(configuration);
                 break;
+            case 3:
+            case 4:
+            case 5:
+            case 6:
+                if(configuration != null) h = heuristicX(packPuzzle(configuration), x, BoardSize.of(BoardSize.widthOf(configuration.length)));
+                break;
             default:
                 break;
         }
         return h;
     }
 
+    //function to reject puzzles other than the 8-puzzle for options built on 8-puzzle tables
+    public static void requireEightPuzzle(BoardSize size, String option) {
+        if(size != EIGHT_PUZZLE) throw new IllegalArgumentException(option+" only supports the 8-puzzle, not width "+size.width);
+    }
+
+    //8-puzzle solution state packed into a long, 4 bits per cell
+    public static final long SOLUTION_BOARD = EIGHT_PUZZLE.solution;
+
+    //function to pack a puzzle configuration into a long, 4 bits per cell
+    public static long packPuzzle(int [] puzzle) {
+        long board = 0;
+        for(int i = 0; i < puzzle.length; i++)
+            board |= ((long) puzzle[i]) << (i << 2);
+        return board;
+    }
+
+    //function to unpack a long into a puzzle configuration
+    public static int [] unpackPuzzle(long board) {
+        return unpackPuzzle(board, EIGHT_PUZZLE);
+    }
+
+    //function to unpack a long into a puzzle configuration of a given size
+    public static int [] unpackPuzzle(long board, BoardSize size) {
+        int [] puzzle = new int [size.cells];
+        for(int i = 0; i < size.cells; i++)
+            puzzle[i] = tileAt(board, i);
+        return puzzle;
+    }
+
+    //function to get the tile at a position of a packed puzzle
+    public static int tileAt(long board, int position) {
+        return (int) (board >>> (position << 2)) & 0xF;
+    }
+
+    //function to find the position of the blank space in a packed puzzle
+    //cells past the end of a smaller puzzle also read as 0, but always after its blank
+    public static int blankIndex(long board) {
+        for(int i = 0; i < 16; i++)
+            if(tileAt(board, i) == 0) return i;
+        return -1;
+    }
+
+    //function to load a byte table from a file as a memory-mapped buffer, building and saving it if the file is missing
+    public static ByteBuffer loadTable(String fileName, int size, Supplier<byte []> builder) {
+        Path path = Paths.get(fileName);
+        try {
+            if(!Files.exists(path) || Files.size(path) != size) {
+                //write to a temporary file first so a partial table is never mapped
+                Path temp = Paths.get(fileName + ".tmp");
+                Files.write(temp, builder.get());
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+        }
+        catch (IOException e) {
+            //table can not be cached on disk, keep it in memory
+            return ByteBuffer.wrap(builder.get());
+        }
+    }
+
+    //disjoint additive pattern database, built by backward breadth first search from the solution state
+    public static class PatternDatabase {
+
+        //tiles of each pattern, every tile belongs to exactly one pattern
+        public static final int [][] PATTERNS = {{1,2,3,4},{5,6,7,8}};
+        public static final String FILE_NAME = "h3PatternDatabase.bin";
+
+        //entries per pattern, indexed by the base 9 positions of the pattern tiles and then the blank position
+        private static final int PATTERN_SIZE = 9*9*9*9*9;
+
+        //pattern of each tile and its base 9 place value in the pattern index
+        private static final int [] PATTERN_OF = new int [9];
+        private static final int [] PLACE_OF = new int [9];
+        static {
+            for(int p = 0; p < PATTERNS.length; p++)
+                for(int i = 0, place = 1; i < PATTERNS[p].length; i++, place *= 9) {
+                    PATTERN_OF[PATTERNS[p][i]] = p;
+                    PLACE_OF[PATTERNS[p][i]] = place;
+                }
+        }
+
+        //holder of the table, mapped from disk or built on first use, class initialization does that once for all threads
+        private static final class Table {
+            static final ByteBuffer TABLE = loadTable(FILE_NAME, PATTERNS.length * PATTERN_SIZE, PatternDatabase::build);
+        }
+
+        //function to get the table, read only and shared without locking
+        private static ByteBuffer table() {
+            return Table.TABLE;
+        }
+
+        //function to calculate the sum of the pattern distances of a packed puzzle
+        public static int h3(long board) {
+            ByteBuffer t = table();
+            int index0 = 0;
+            int index1 = PATTERN_SIZE;
+            for(int i = 0; i < 9; i++) {
+                int tile = tileAt(board, i);
+                if(tile == 0) {
+                    //the blank position keeps the heuristic consistent
+                    index0 += i * 9*9*9*9;
+                    index1 += i * 9*9*9*9;
+                }
+                else if(PATTERN_OF[tile] == 0) index0 += i * PLACE_OF[tile];
+                else index1 += i * PLACE_OF[tile];
+            }
+            return t.get(index0) + t.get(index1);
+        }
+
+        //function to build every pattern's table
+        public static byte [] build() {
+            byte [] tables = new byte [PATTERNS.length * PATTERN_SIZE];
+            for(int p = 0; p < PATTERNS.length; p++)
+                buildPattern(PATTERNS[p], tables, p * PATTERN_SIZE);
+            return tables;
+        }
+
+        //function to build one pattern's table with a 0-1 breadth first search where only pattern tile moves cost
+        private static void buildPattern(int [] pattern, byte [] tables, int offset) {
+
+            //abstract state is the base 9 positions of the pattern tiles followed by the blank position
+            int tiles = pattern.length;
+            int blankPlace = PATTERN_SIZE / 9;
+            Arrays.fill(tables, offset, offset + PATTERN_SIZE, (byte) -1);
+
+            int goal = 0;
+            for(int i = 0, place = 1; i < tiles; i++, place *= 9)
+                goal += pattern[i] * place;
+
+            //deque of abstract states, free moves go to the front and tile moves to the back
+            //a state is pushed at most once to each end, when its distance drops
+            int [] deque = new int [PATTERN_SIZE * 2];
+            int head = PATTERN_SIZE;
+            int tail = PATTERN_SIZE;
+            deque[tail++] = goal;
+            boolean [] settled = new boolean [PATTERN_SIZE];
+            tables[offset + goal] = 0;
+            int [] positions = new int [tiles];
+            while(head < tail) {
+                int state = deque[head++];
+                if(settled[state]) continue;
+                settled[state] = true;
+                int tileIndex = state % blankPlace;
+                int blank = state / blankPlace;
+                int d = tables[offset + state];
+
+                for(int i = 0, rest = tileIndex; i < tiles; i++, rest /= 9)
+                    positions[i] = rest % 9;
+
+                //move the blank to each neighbor, swapping with a pattern tile if one is there
+                for(int dir = 0; dir < 4; dir++) {
+                    int target = NEIGHBORS[blank][dir];
+                    if(target < 0) continue;
+                    int next = tileIndex;
+                    int cost = 0;
+                    for(int i = 0, place = 1; i < tiles; i++, place *= 9)
+                        if(positions[i] == target) {
+                            next += (blank - target) * place;
+                            cost = 1;
+                            break;
+                        }
+                    next += target * blankPlace;
+                    int known = tables[offset + next];
+                    if(settled[next] || (known >= 0 && known <= d + cost)) continue;
+                    tables[offset + next] = (byte) (d + cost);
+                    if(cost == 0) deque[--head] = next;
+                    else deque[tail++] = next;
+                }
+            }
+        }
+    }
+
+    //exact solution depth of every solvable puzzle, indexed by permutation rank
+    public static class DistanceTable {
+
+        //number of solvable puzzles, 9!/2
+        public static final int STATES = 181440;
+        public static final String FILE_NAME = "distanceTable.bin";
+
+        //ranks per blank position and half factorials used as lehmer code place values
+        private static final int RANKS_PER_BLANK = STATES / 9;
+        private static final int [] HALF_FACTORIAL = {2520, 360, 60, 12, 3, 1};
+
+        //holder of the table, mapped from disk or built on first use, class initialization does that once for all threads
+        private static final class Table {
+            static final ByteBuffer TABLE = loadTable(FILE_NAME, STATES, DistanceTable::build);
+        }
+
+        //function to get the table, read only and shared without locking
+        private static ByteBuffer table() {
+            return Table.TABLE;
+        }
+
+        //function to rank a solvable packed puzzle in [0, 9!/2)
+        //tiles are ranked by lehmer code in cell order skipping the blank, the last two digits follow from the even parity
+        public static int rank(long board) {
+            int blank = 0;
+            int rank = 0;
+            int seen = 0;
+            int digit = 0;
+            for(int i = 0; i < 9; i++) {
+                int tile = tileAt(board, i);
+                if(tile == 0) {
+                    blank = i;
+                    continue;
+                }
+                if(digit < 6)
+                    rank += ((tile - 1) - Integer.bitCount(seen & ((1 << tile) - 1))) * HALF_FACTORIAL[digit];
+                seen |= 1 << tile;
+                digit++;
+            }
+            return blank * RANKS_PER_BLANK + rank;
+        }
+
+        //function to unrank a rank in [0, 9!/2) into its solvable packed puzzle
+        //the lehmer digits pick the first six tiles, the last two go in the order that keeps the inversions even
+        public static long unrank(int rank) {
+            int blank = rank / RANKS_PER_BLANK;
+            rank %= RANKS_PER_BLANK;
+            int [] tiles = new int [8];
+            int unused = 0x1FE;
+            int inversions = 0;
+            for(int digit = 0; digit < 6; digit++) {
+                int smaller = rank / HALF_FACTORIAL[digit];
+                rank %= HALF_FACTORIAL[digit];
+                inversions += smaller;
+                int tile = 1;
+                for(int seen = 0; ; tile++)
+                    if((unused & 1 << tile) != 0 && seen++ == smaller) break;
+                tiles[digit] = tile;
+                unused &= ~(1 << tile);
+            }
+            tiles[6] = Integer.numberOfTrailingZeros(unused);
+            tiles[7] = 31 - Integer.numberOfLeadingZeros(unused);
+            if(inversions % 2 != 0) {
+                tiles[6] = tiles[7];
+                tiles[7] = Integer.numberOfTrailingZeros(unused);
+            }
+            long board = 0;
+            for(int i = 0, digit = 0; i < 9; i++)
+                if(i != blank) board |= ((long) tiles[digit++]) << (i << 2);
+            return board;
+        }
+
+        //function to get the exact solution depth of a solvable packed puzzle
+        public static int distance(long board) {
+            return table().get(rank(board));
+        }
+
+        //function to get the exact solution depth of the puzzle of a rank
+        public static int distanceOfRank(int rank) {
+            return table().get(rank);
+        }
+
+        //function to build the table with a breadth first search from the solution state
+        public static byte [] build() {
+            byte [] distances = new byte [STATES];
+            Arrays.fill(distances, (byte) -1);
+            long [] queue = new long [STATES];
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = SOLUTION_BOARD;
+            distances[rank(SOLUTION_BOARD)] = 0;
+            while(head < tail) {
+                long board = queue[head++];
+                int blank = blankIndex(board);
+                byte d = distances[rank(board)];
+                for(int dir = 0; dir < 4; dir++) {
+                    int target = NEIGHBORS[blank][dir];
+                    if(target < 0) continue;
+                    long leafBoard = moveBlank(board, blank, target);
+                    int leafRank = rank(leafBoard);
+                    if(distances[leafRank] >= 0) continue;
+                    distances[leafRank] = (byte) (d + 1);
+                    queue[tail++] = leafBoard;
+                }
+            }
+            return distances;
+        }
+
+        //function to solve a puzzle by always moving to a neighbor one step closer to the solution
+        public static Node search(Node root) {
+            return search(root, new SearchMetrics());
+        }
+
+        //function to solve a puzzle by descending the table, counting each table lookup as a heuristic evaluation
+        public static Node search(Node root, SearchMetrics metrics) {
+            requireEightPuzzle(root.getSize(), "Distance Table");
+            ByteBuffer t = table();
+            metrics.begin(root, 3, 4);
+            boolean timed = metrics.timeHeuristics;
+            long start = timed ? System.nanoTime() : 0;
+            root.setHeuristic(t.get(rank(root.getBoard())));
+            if(timed) metrics.heuristicNanos += System.nanoTime() - start;
+            Node current = root;
+            int searchCost = 0;
+            while(current.getBoard() != SOLUTION_BOARD) {
+                long board = current.getBoard();
+                int blank = current.getBlank();
+                int d = current.getHeuristic();
+                Node next = null;
+                int generated = 0;
+                for(int dir = 0; dir < 4 && next == null; dir++) {
+                    int target = NEIGHBORS[blank][dir];
+                    if(target < 0) continue;
+                    long leafBoard = moveBlank(board, blank, target);
+                    generated++;
+                    start = timed ? System.nanoTime() : 0;
+                    int leafDistance = t.get(rank(leafBoard));
+                    if(timed) metrics.heuristicNanos += System.nanoTime() - start;
+                    if(leafDistance == d - 1)
+                        next = new Node(current, leafBoard, target, d - 1);
+                }
+                metrics.leaves(generated, 0, 0);
+                metrics.expanded++;
+                //no closer neighbor means the puzzle is not solvable
+                if(next == null) return metrics.end(null);
+                current = next;
+                searchCost++;
+            }
+            current.setSearchCost(searchCost);
+            return metrics.end(current);
+        }
+    }
+
     //Node class for a puzzle configuration
     public static class Node {
 
         //attributes
         private Node parent;
-        private int [] puzzleConfig;
+        private long board;
+        private byte blank;
+        private byte move;
+        private byte width;
         private int heuristic;
         private int depth;
         private int cost;
         private int searchCost;
+        private int heapIndex;
 
         //default constructor
         public Node() {
             this.parent = null;
-            this.puzzleConfig = null;
+            this.board = 0;
+            this.blank = -1;
+            this.move = -1;
+            this.width = 3;
             this.heuristic = 0;
             this.depth = 0;
             this.cost = 0;
             this.searchCost = 0;
         }
 
-        //constructor
-        Node(Node parentNode, int [] puzzleConfig, int heuristic) {
-            if(parentNode != null) {
-                this.parent = parentNode;
-                this.puzzleConfig = Arrays.copyOf(puzzleConfig,puzzleConfig.length);
-                this.heuristic = heuristic;
-                this.depth = parentNode.getDepth() + 1;
-                this.cost = this.depth + this.heuristic;
-                this.searchCost = 0;
+        //constructor
+        Node(Node parentNode, int [] puzzleConfig, int heuristic) {
+            this(parentNode, packPuzzle(puzzleConfig), -1, heuristic, -1);
+            if(parentNode != null) {
+                this.blank = (byte) blankIndex(this.board);
+                this.move = (byte) direction(parentNode.getBlank(), this.blank, this.width);
+            }
+        }
+
+        //constructor for a packed puzzle with a known blank position
+        Node(Node parentNode, long board, int blank, int heuristic) {
+            this(parentNode, board, blank, heuristic, parentNode != null ? direction(parentNode.getBlank(), blank, parentNode.getWidth()) : -1);
+        }
+
+        //constructor for a packed puzzle with a known blank position and the direction the blank moved to reach it
+        Node(Node parentNode, long board, int blank, int heuristic, int move) {
+            if(parentNode != null) {
+                this.parent = parentNode;
+                this.board = board;
+                this.blank = (byte) blank;
+                this.move = (byte) move;
+                this.width = (byte) parentNode.getWidth();
+                this.heuristic = heuristic;
+                this.depth = parentNode.getDepth() + 1;
+                this.cost = this.depth + this.heuristic;
+                this.searchCost = 0;
+            }
+            else {
+                this.parent = null;
+                this.board = 0;
+                this.blank = -1;
+                this.move = -1;
+                this.width = 3;
+                this.heuristic = 0;
+                this.depth = 0;
+                this.cost = 0;
+                this.searchCost = 0;
+            }
+
+        }
+
+        //constructor for a node without a parent, for searches that keep the moves leading to each puzzle instead
+        Node(long board, int blank, int heuristic, int depth, int move, int width) {
+            this.parent = null;
+            this.board = board;
+            this.blank = (byte) blank;
+            this.move = (byte) move;
+            this.width = (byte) width;
+            this.heuristic = heuristic;
+            this.depth = depth;
+            this.cost = this.depth + this.heuristic;
+            this.searchCost = 0;
+        }
+
+
+        //setters
+        public void setParent(Node parent) { this.parent = parent; }
+        public void setPuzzleConfig(int [] puzzleConfig) {
+            this.width = (byte) BoardSize.of(BoardSize.widthOf(puzzleConfig.length)).width;
+            this.board = packPuzzle(puzzleConfig);
+            this.blank = (byte) blankIndex(this.board);
+        }
+        public void setMove(int move) { this.move = (byte) move; }
+        public void setHeuristic(int heuristic) {
+            this.heuristic = heuristic;
+            this.cost = this.heuristic + this.depth;
+        }
+        public void setDepth(int depth) {
+            this.depth = depth;
+            this.cost = this.heuristic + this.depth;
+        }
+        public void setSearchCost(int searchCost) { this.searchCost = searchCost; }
+
+        //getters
+        public int [] getPuzzleConfig() { return this.blank < 0 ? null : unpackPuzzle(this.board, getSize()); }
+        public long getBoard() { return this.board; }
+        public int getBlank() { return this.blank; }
+        public int getMove() { return this.move; }
+        public int getWidth() { return this.width; }
+        public BoardSize getSize() { return BoardSize.of(this.width); }
+        public int getCost() { return this.cost; }
+        public int getDepth() { return this.depth; }
+        public int getHeuristic() { return this.heuristic; }
+        public int getSearchCost() { return this.searchCost; }
+        public Node getParent() { return this.parent; }
+        public int getHeapIndex() { return this.heapIndex; }
+        public void setHeapIndex(int heapIndex) { this.heapIndex = heapIndex; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Node node = (Node) o;
+            return board == node.board;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(board * 0x9E3779B97F4A7C15L);
+        }
+    }
+
+    //move directions of the blank space
+    public static final int LEFT = 0;
+    public static final int RIGHT = 1;
+    public static final int UP = 2;
+    public static final int DOWN = 3;
+
+    //table of the position the 8-puzzle blank space moves to for each blank position and direction, -1 if illegal
+    public static final int [][] NEIGHBORS = EIGHT_PUZZLE.neighbors;
+
+    //function to slide the tile at target into the blank space of a packed puzzle
+    public static long moveBlank(long board, int blank, int target) {
+        long tile = (board >>> (target << 2)) & 0xF;
+        return (board & ~(0xFL << (target << 2))) | (tile << (blank << 2));
+    }
+
+    //function to configure the blank space moving in a direction, null if the move is illegal
+    public static int [] move(int [] configuration, int direction) {
+        int positionOfBlank = 0;
+        while(configuration[positionOfBlank] != 0) positionOfBlank++;
+        int target = BoardSize.of(BoardSize.widthOf(configuration.length)).neighbors[positionOfBlank][direction];
+        if(target < 0) return null;
+        int [] newConfig = Arrays.copyOf(configuration,configuration.length);
+        newConfig[positionOfBlank] = newConfig[target];
+        newConfig[target] = 0;
+        return newConfig;
+    }
+
+    //function to configure blank space moving left
+    public static int [] moveLeft(int [] configuration) { return move(configuration, LEFT); }
+
+    //function to configure blank space moving right
+    public static int [] moveRight(int [] configuration) { return move(configuration, RIGHT); }
+
+    //function to configure blank space moving up
+    public static int [] moveUp(int [] configuration) { return move(configuration, UP); }
+
+    //function to configure blank space moving down
+    public static int [] moveDown(int [] configuration) { return move(configuration, DOWN); }
+
+    //function that adds leaf nodes of a given parent node to the frontier
+    public static void makeLeaves(Node parentNode, OpenList frontier, int x) {
+        makeLeaves(parentNode, frontier, x, null);
+    }
+
+    //function that adds leaf nodes of a given parent node to the frontier, counting them in the metrics if given
+    public static void makeLeaves(Node parentNode, OpenList frontier, int x, SearchMetrics metrics) {
+
+        //get packed puzzle and blank position
+        BoardSize size = parentNode.getSize();
+        long board = parentNode.getBoard();
+        int blank = parentNode.getBlank();
+        int [] targets = size.neighbors[blank];
+
+        //for every legal action, make a node and add it to the frontier
+        boolean timed = metrics != null && metrics.timeHeuristics;
+        int generated = 0;
+        for(int d = 0; d < 4; d++) {
+            int target = targets[d];
+            if(target < 0) continue;
+            long leafBoard = moveBlank(board, blank, target);
+            long start = timed ? System.nanoTime() : 0;
+            int h = leafHeuristic(parentNode.getHeuristic(), leafBoard, tileAt(board, target), target, blank, x, size);
+            if(timed) metrics.heuristicNanos += System.nanoTime() - start;
+            frontier.add(new Node(parentNode, leafBoard, target, h, d));
+            generated++;
+        }
+        if(metrics != null) metrics.leaves(generated, 0, 0);
+    }
+
+    //overloaded function that adds leaf nodes to the frontier
+    //leaves do not link to their parent, they keep the direction of their last move for the explored set
+    public static void makeLeaves(Node parentNode, OpenList frontier, ClosedSet explored, int x) {
+        makeLeaves(parentNode, frontier, explored, x, null);
+    }
+
+    //overloaded function that adds leaf nodes to the frontier, counting them in the metrics if given
+    public static void makeLeaves(Node parentNode, OpenList frontier, ClosedSet explored, int x, SearchMetrics metrics) {
+
+        //get packed puzzle and blank position
+        BoardSize size = parentNode.getSize();
+        long board = parentNode.getBoard();
+        int blank = parentNode.getBlank();
+        int depth = parentNode.getDepth() + 1;
+        int [] targets = size.neighbors[blank];
+
+        //for every legal action, if the leaf is not explored on a path as short, add it to the frontier or lower the cost of its frontier entry
+        boolean timed = metrics != null && metrics.timeHeuristics;
+        int generated = 0;
+        int duplicates = 0;
+        int reopenings = 0;
+        for(int d = 0; d < 4; d++) {
+            int target = targets[d];
+            if(target < 0) continue;
+            generated++;
+            long leafBoard = moveBlank(board, blank, target);
+            Node existing = frontier.get(leafBoard);
+            if(existing == null) {
+                int exploredDepth = explored.getDepth(leafBoard);
+                if(exploredDepth >= 0 && exploredDepth <= depth) {
+                    duplicates++;
+                    continue;
+                }
+                if(exploredDepth >= 0) reopenings++;
+                long start = timed ? System.nanoTime() : 0;
+                int h = leafHeuristic(parentNode.getHeuristic(), leafBoard, tileAt(board, target), target, blank, x, size);
+                if(timed) metrics.heuristicNanos += System.nanoTime() - start;
+                frontier.add(new Node(leafBoard, target, h, depth, d, size.width));
+            }
+            else if(depth < existing.getDepth()) {
+                existing.setMove(d);
+                existing.setDepth(depth);
+                frontier.decreaseKey(existing);
+            }
+            else duplicates++;
+        }
+        if(metrics != null) metrics.leaves(generated, duplicates, reopenings);
+
+    }
+
+    //letters of the blank's move directions, left, right, up and down
+    public static final String MOVE_LETTERS = "LRUD";
+
+    //function to get the moves of a solution path as a string of blank directions
+    public static String solutionMoves(Node n) {
+        char [] moves = new char [n.getDepth()];
+        for(Node current = n; current != null && current.getDepth() > 0; current = current.getParent())
+            moves[current.getDepth() - 1] = MOVE_LETTERS.charAt(current.getMove());
+        return new String(moves);
+    }
+
+    //function to undo the last move of a packed puzzle whose blank moved in a direction to reach its position
+    public static long undoMove(long board, int blank, int move) {
+        return undoMove(board, blank, move, EIGHT_PUZZLE);
+    }
+
+    //function to undo the last move of a packed puzzle of a given size
+    public static long undoMove(long board, int blank, int move, BoardSize size) {
+        return moveBlank(board, blank, size.neighbors[blank][move ^ 1]);
+    }
+
+    //function to walk back from a node through the moves recorded in an explored set to the initial puzzle
+    public static String exploredMoves(Node n, long initialBoard, ClosedSet explored) {
+        StringBuilder moves = new StringBuilder(n.getDepth());
+        BoardSize size = n.getSize();
+        long board = n.getBoard();
+        int blank = n.getBlank();
+        int move = n.getMove();
+        while(board != initialBoard) {
+            if(move < 0 || moves.length() > n.getDepth()) throw new IllegalStateException("Explored moves do not lead back to the initial puzzle.");
+            moves.append(MOVE_LETTERS.charAt(move));
+            board = undoMove(board, blank, move, size);
+            blank = size.neighbors[blank][move ^ 1];
+            move = explored.getMove(board);
+        }
+        return moves.reverse().toString();
+    }
+
+    //function to apply moves to the initial node, building the nodes of the solution path only
+    public static Node replaySolution(Node root, String moves, int x) {
+        BoardSize size = root.getSize();
+        Node current = root;
+        for(int i = 0; i < moves.length(); i++) {
+            int d = MOVE_LETTERS.indexOf(moves.charAt(i));
+            int target = size.neighbors[current.getBlank()][d];
+            long leafBoard = moveBlank(current.getBoard(), current.getBlank(), target);
+            current = new Node(current, leafBoard, target, heuristicX(leafBoard, x, size), d);
+        }
+        return current;
+    }
+
+    //function to iterate lazily over the puzzles visited by applying moves to a puzzle, starting with the puzzle itself
+    public static Iterator<int []> solutionPuzzles(final int [] puzzle, final String moves) {
+        return new Iterator<int []>() {
+            private final BoardSize size = BoardSize.of(BoardSize.widthOf(puzzle.length));
+            private long board = packPuzzle(puzzle);
+            private int blank = blankIndex(board);
+            private int next = -1;
+
+            public boolean hasNext() { return next < moves.length(); }
+
+            public int [] next() {
+                if(!hasNext()) throw new NoSuchElementException();
+                if(next >= 0) {
+                    int target = size.neighbors[blank][MOVE_LETTERS.indexOf(moves.charAt(next))];
+                    board = moveBlank(board, blank, target);
+                    blank = target;
+                }
+                next++;
+                return unpackPuzzle(board, size);
+            }
+        };
+    }
+
+    //function to find the direction the blank moved from one position to a neighboring one
+    public static int direction(int from, int to) {
+        return direction(from, to, 3);
+    }
+
+    //function to find the direction the blank moved between neighboring positions of a puzzle of a given width
+    public static int direction(int from, int to, int width) {
+        int [] targets = BoardSize.of(width).neighbors[from];
+        for(int d = 0; d < 4; d++)
+            if(targets[d] == to) return d;
+        return -1;
+    }
+
+    //set of explored packed puzzles with the depth and last move of each, open addressing on primitive arrays
+    public static class ClosedSet {
+
+        //attributes
+        private long [] keys;
+        private short [] entries;
+        private int size;
+        private int mask;
+        //the slot of a puzzle is the top bits of its hash, as many as the capacity needs
+        private int shift;
+
+        //constructor
+        public ClosedSet() {
+            this(1 << 10);
+        }
+
+        //constructor with an initial capacity, rounded up to a power of two
+        public ClosedSet(int capacity) {
+            int slots = Integer.highestOneBit(Math.max(16, capacity - 1) << 1);
+            this.keys = new long [slots];
+            this.entries = new short [slots];
+            this.mask = slots - 1;
+            this.shift = 64 - Integer.numberOfTrailingZeros(slots);
+        }
+
+        public int size() { return size; }
+
+        //function to remove every puzzle, keeping the capacity
+        public void clear() {
+            if(size == 0) return;
+            Arrays.fill(keys, 0);
+            size = 0;
+        }
+
+        //function to find the slot of a puzzle, or the empty slot where it would go
+        private int slot(long board) {
+            int i = (int) ((board * 0x9E3779B97F4A7C15L) >>> shift);
+            while(keys[i] != 0 && keys[i] != board) i = (i + 1) & mask;
+            return i;
+        }
+
+        public boolean contains(long board) { return keys[slot(board)] != 0; }
+
+        //function to get the depth a puzzle was explored at, -1 if it was not
+        public int getDepth(long board) {
+            int i = slot(board);
+            return keys[i] != 0 ? entries[i] >>> 2 : -1;
+        }
+
+        //function to get the direction of the move that reached a puzzle, -1 if it was not explored
+        public int getMove(long board) {
+            int i = slot(board);
+            return keys[i] != 0 ? entries[i] & 3 : -1;
+        }
+
+        //function to add a puzzle, or lower its depth, with the move that reached it
+        public void put(long board, int depth, int move) {
+            int i = slot(board);
+            if(keys[i] == 0) {
+                keys[i] = board;
+                size++;
+            }
+            else if((entries[i] >>> 2) <= depth) return;
+            entries[i] = (short) ((depth << 2) | (move & 3));
+            //keep at most three quarters of the slots full
+            if(size > (mask >>> 1) + (mask >>> 2)) grow();
+        }
+
+        //function to double the capacity and reinsert every puzzle
+        private void grow() {
+            long [] oldKeys = keys;
+            short [] oldEntries = entries;
+            keys = new long [oldKeys.length << 1];
+            entries = new short [oldKeys.length << 1];
+            mask = keys.length - 1;
+            shift = 64 - Integer.numberOfTrailingZeros(keys.length);
+            for(int j = 0; j < oldKeys.length; j++) {
+                if(oldKeys[j] == 0) continue;
+                int i = slot(oldKeys[j]);
+                keys[i] = oldKeys[j];
+                entries[i] = oldEntries[j];
+            }
+        }
+    }
+
+    //index of the frontier nodes by packed puzzle, open addressing on primitive keys so lookups do not box them
+    //a removed node's slot is filled by shifting back the rest of its probe run, so no lookup stops early
+    private static final class NodeIndex {
+
+        //attributes
+        private long [] keys = new long [1 << 10];
+        private Node [] nodes = new Node [1 << 10];
+        private int size;
+        private int mask = (1 << 10) - 1;
+        private int shift = 64 - 10;
+
+        //function to get the first slot a puzzle may be in
+        private int home(long board) {
+            return (int) ((board * 0x9E3779B97F4A7C15L) >>> shift);
+        }
+
+        //function to find the slot of a puzzle, or the empty slot where it would go
+        private int slot(long board) {
+            int i = home(board);
+            while(keys[i] != 0 && keys[i] != board) i = (i + 1) & mask;
+            return i;
+        }
+
+        //function to get the node of a puzzle, null if there is none
+        Node get(long board) {
+            return nodes[slot(board)];
+        }
+
+        //function to add a node, replacing any node of the same puzzle
+        void put(Node n) {
+            long board = n.getBoard();
+            int i = slot(board);
+            if(keys[i] == 0) {
+                keys[i] = board;
+                size++;
+            }
+            nodes[i] = n;
+            //keep at most three quarters of the slots full
+            if(size > (mask >>> 1) + (mask >>> 2)) grow();
+        }
+
+        //function to remove the node of a puzzle
+        void remove(long board) {
+            int hole = slot(board);
+            if(keys[hole] == 0) return;
+            for(int j = (hole + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+                //an entry may fill the hole if the hole lies on its probe run from its home slot
+                if(((j - home(keys[j])) & mask) >= ((j - hole) & mask)) {
+                    keys[hole] = keys[j];
+                    nodes[hole] = nodes[j];
+                    hole = j;
+                }
+            }
+            keys[hole] = 0;
+            nodes[hole] = null;
+            size--;
+        }
+
+        //function to remove every node, keeping the capacity
+        void clear() {
+            if(size == 0) return;
+            Arrays.fill(keys, 0);
+            Arrays.fill(nodes, null);
+            size = 0;
+        }
+
+        //function to double the capacity and reinsert every node
+        private void grow() {
+            long [] oldKeys = keys;
+            Node [] oldNodes = nodes;
+            keys = new long [oldKeys.length << 1];
+            nodes = new Node [oldKeys.length << 1];
+            mask = keys.length - 1;
+            shift = 64 - Integer.numberOfTrailingZeros(keys.length);
+            for(int j = 0; j < oldKeys.length; j++) {
+                if(oldKeys[j] == 0) continue;
+                int i = slot(oldKeys[j]);
+                keys[i] = oldKeys[j];
+                nodes[i] = oldNodes[j];
+            }
+        }
+    }
+
+    //frontier of a search, ordered by cost
+    //an indexed frontier holds each puzzle once and supports lookup and decrease-key, others may hold duplicates
+    public interface OpenList {
+        boolean isEmpty();
+        int size();
+        void add(Node n);
+        Node peek();
+        Node remove();
+        Node get(long board);
+        void decreaseKey(Node n);
+        void clear();
+    }
+
+    //function to make an open list, a bucket queue or a binary heap ordered by cost
+    public static OpenList openList(boolean bucketQueue, boolean indexed) {
+        return bucketQueue ? new BucketOpenList(indexed) : new IndexedOpenList(nodeComparator, indexed);
+    }
+
+    //priority queue of nodes with a state to node index, supports membership lookup and decrease-key
+    public static class IndexedOpenList implements OpenList {
+
+        //attributes
+        private Node [] heap;
+        private int size;
+        private final NodeIndex index;
+        private final Comparator<Node> comparator;
+
+        //constructor
+        public IndexedOpenList(Comparator<Node> comparator) {
+            this(comparator, true);
+        }
+
+        //constructor, without an index lookups always miss and the heap may hold duplicate puzzles
+        public IndexedOpenList(Comparator<Node> comparator, boolean indexed) {
+            this.heap = new Node [64];
+            this.size = 0;
+            this.index = indexed ? new NodeIndex() : null;
+            this.comparator = comparator;
+        }
+
+        public boolean isEmpty() { return size == 0; }
+        public int size() { return size; }
+
+        //function to get the frontier node holding a packed puzzle, null if there is none
+        public Node get(long board) { return index == null ? null : index.get(board); }
+
+        //function to remove every node, keeping the heap capacity
+        public void clear() {
+            Arrays.fill(heap, 0, size, null);
+            size = 0;
+            if(index != null) index.clear();
+        }
+
+        //function to add a node whose puzzle is not yet in the frontier
+        public void add(Node n) {
+            if(size == heap.length) heap = Arrays.copyOf(heap, size << 1);
+            heap[size] = n;
+            n.setHeapIndex(size);
+            size++;
+            siftUp(n.getHeapIndex());
+            if(index != null) index.put(n);
+        }
+
+        //function to return the node with lowest cost without removing it
+        public Node peek() {
+            if(size == 0) throw new NoSuchElementException();
+            return heap[0];
+        }
+
+        //function to remove and return the node with lowest cost
+        public Node remove() {
+            if(size == 0) throw new NoSuchElementException();
+            Node top = heap[0];
+            size--;
+            if(size > 0) {
+                heap[0] = heap[size];
+                heap[0].setHeapIndex(0);
+                siftDown(0);
+            }
+            heap[size] = null;
+            top.setHeapIndex(-1);
+            if(index != null) index.remove(top.getBoard());
+            return top;
+        }
+
+        //function to restore heap order after a node's cost was lowered
+        public void decreaseKey(Node n) {
+            siftUp(n.getHeapIndex());
+        }
+
+        private void siftUp(int i) {
+            Node n = heap[i];
+            while(i > 0) {
+                int p = (i - 1) >>> 1;
+                if(comparator.compare(n, heap[p]) >= 0) break;
+                heap[i] = heap[p];
+                heap[i].setHeapIndex(i);
+                i = p;
+            }
+            heap[i] = n;
+            n.setHeapIndex(i);
+        }
+
+        private void siftDown(int i) {
+            Node n = heap[i];
+            int half = size >>> 1;
+            while(i < half) {
+                int c = (i << 1) + 1;
+                if(c + 1 < size && comparator.compare(heap[c + 1], heap[c]) < 0) c++;
+                if(comparator.compare(n, heap[c]) <= 0) break;
+                heap[i] = heap[c];
+                heap[i].setHeapIndex(i);
+                i = c;
+            }
+            heap[i] = n;
+            n.setHeapIndex(i);
+        }
+    }
+
+    //custom comparator for the node class, compares by cost
+    public static final Comparator<Node> nodeComparator = new Comparator<Node>() {
+        @Override
+        public int compare(Node n1, Node n2) {
+            return n1.getCost() - n2.getCost();
+        }
+    };
+
+    //bucket queue of nodes for small integer costs, one LIFO stack per cost and heuristic value
+    //the lowest cost is removed first and, among equal costs, the lowest heuristic so the deepest node is preferred
+    public static class BucketOpenList implements OpenList {
+
+        //heuristic values per cost level
+        private static final int H_LEVELS = 128;
+
+        //attributes
+        private Node [][] stacks;
+        private int [] stackSizes;
+        private int [] costCounts;
+        private int minCost;
+        private int size;
+        private final NodeIndex index;
+
+        //constructor, without an index lookups always miss and the queue may hold duplicate puzzles
+        public BucketOpenList(boolean indexed) {
+            this.stacks = new Node [64 * H_LEVELS][];
+            this.stackSizes = new int [64 * H_LEVELS];
+            this.costCounts = new int [64];
+            this.minCost = Integer.MAX_VALUE;
+            this.size = 0;
+            this.index = indexed ? new NodeIndex() : null;
+        }
+
+        public boolean isEmpty() { return size == 0; }
+        public int size() { return size; }
+
+        //function to get the frontier node holding a packed puzzle, null if there is none
+        public Node get(long board) { return index == null ? null : index.get(board); }
+
+        //function to remove every node, keeping the bucket capacity
+        public void clear() {
+            for(int f = 0; f < costCounts.length; f++) {
+                if(costCounts[f] == 0) continue;
+                for(int h = 0; h < H_LEVELS; h++) {
+                    int bucket = f * H_LEVELS + h;
+                    if(stackSizes[bucket] > 0) Arrays.fill(stacks[bucket], 0, stackSizes[bucket], null);
+                    stackSizes[bucket] = 0;
+                }
+                costCounts[f] = 0;
+            }
+            minCost = Integer.MAX_VALUE;
+            size = 0;
+            if(index != null) index.clear();
+        }
+
+        //function to add a node whose puzzle is not yet in the frontier
+        public void add(Node n) {
+            push(n);
+            size++;
+            if(index != null) index.put(n);
+        }
+
+        //function to lower a frontier node's cost, the old entry is left behind and skipped when reached
+        public void decreaseKey(Node n) {
+            push(n);
+        }
+
+        //function to return the node with lowest cost without removing it
+        public Node peek() {
+            int bucket = top();
+            return stacks[bucket][stackSizes[bucket] - 1];
+        }
+
+        //function to remove and return the node with lowest cost
+        public Node remove() {
+            int bucket = top();
+            Node n = stacks[bucket][--stackSizes[bucket]];
+            stacks[bucket][stackSizes[bucket]] = null;
+            costCounts[bucket / H_LEVELS]--;
+            n.setHeapIndex(-1);
+            size--;
+            if(index != null) index.remove(n.getBoard());
+            return n;
+        }
+
+        //function to put a node on the stack of its cost and heuristic, remembering the cost as its live entry
+        private void push(Node n) {
+            int f = n.getCost();
+            int h = n.getHeuristic();
+            if(h >= H_LEVELS || f < 0) throw new IllegalArgumentException("Cost out of bucket range: "+f);
+            if(f >= costCounts.length) {
+                int levels = Math.max(f + 1, costCounts.length << 1);
+                costCounts = Arrays.copyOf(costCounts, levels);
+                stacks = Arrays.copyOf(stacks, levels * H_LEVELS);
+                stackSizes = Arrays.copyOf(stackSizes, levels * H_LEVELS);
+            }
+            int bucket = f * H_LEVELS + h;
+            if(stacks[bucket] == null) stacks[bucket] = new Node [16];
+            else if(stackSizes[bucket] == stacks[bucket].length) stacks[bucket] = Arrays.copyOf(stacks[bucket], stackSizes[bucket] << 1);
+            stacks[bucket][stackSizes[bucket]++] = n;
+            costCounts[f]++;
+            n.setHeapIndex(f);
+            if(f < minCost) minCost = f;
+        }
+
+        //function to find the bucket holding the lowest live node, dropping entries left behind by decrease-key
+        private int top() {
+            if(size == 0) throw new NoSuchElementException();
+            while(true) {
+                while(costCounts[minCost] == 0) minCost++;
+                int f = minCost;
+                for(int h = 0; h <= f && h < H_LEVELS; h++) {
+                    int bucket = f * H_LEVELS + h;
+                    while(stackSizes[bucket] > 0) {
+                        Node n = stacks[bucket][stackSizes[bucket] - 1];
+                        if(n.getHeapIndex() == f && n.getCost() == f) return bucket;
+                        //stale entry of a node that moved to a lower cost or left the frontier
+                        stacks[bucket][--stackSizes[bucket]] = null;
+                        costCounts[f]--;
+                    }
+                }
+            }
+        }
+    }
+
+    //default limit on tree search expansions before giving up for lack of memory
+    public static final int TREE_SEARCH_LIMIT = 7000000;
+
+    //counters of one search, cleared when a search begins
+    public static class SearchMetrics {
+
+        //attributes
+        private int algorithm;
+        private int heuristic;
+        private int width;
+        private long board;
+        private int depth;
+        private long generated;
+        private long expanded;
+        private long duplicates;
+        private long reopenings;
+        private long frontierPeak;
+        private long closedPeak;
+        private long heuristicNanos;
+        private long wallNanos;
+        private long startNanos;
+        private boolean timeHeuristics;
+
+        //constructor
+        public SearchMetrics() {
+            this.depth = -1;
+        }
+
+        //constructor copying another search's counters
+        public SearchMetrics(SearchMetrics m) {
+            this.algorithm = m.algorithm;
+            this.heuristic = m.heuristic;
+            this.width = m.width;
+            this.board = m.board;
+            this.depth = m.depth;
+            this.generated = m.generated;
+            this.expanded = m.expanded;
+            this.duplicates = m.duplicates;
+            this.reopenings = m.reopenings;
+            this.frontierPeak = m.frontierPeak;
+            this.closedPeak = m.closedPeak;
+            this.heuristicNanos = m.heuristicNanos;
+            this.wallNanos = m.wallNanos;
+            this.timeHeuristics = m.timeHeuristics;
+        }
+
+        //function to clear the counters for a search of a puzzle
+        void begin(Node root, int algorithm, int heuristic) {
+            this.algorithm = algorithm;
+            this.heuristic = heuristic;
+            this.width = root.getWidth();
+            this.board = root.getBoard();
+            this.depth = -1;
+            this.generated = 0;
+            this.expanded = 0;
+            this.duplicates = 0;
+            this.reopenings = 0;
+            this.frontierPeak = 0;
+            this.closedPeak = 0;
+            this.heuristicNanos = 0;
+            this.wallNanos = 0;
+            this.startNanos = System.nanoTime();
+        }
+
+        //function to record the end of a search with its solution, null if it failed
+        Node end(Node solution) {
+            this.wallNanos = System.nanoTime() - startNanos;
+            this.depth = solution == null ? -1 : solution.getDepth();
+            return solution;
+        }
+
+        //functions to add the leaves of one expansion and track the peak storage
+        void leaves(int generated, int duplicates, int reopenings) {
+            this.generated += generated;
+            this.duplicates += duplicates;
+            this.reopenings += reopenings;
+        }
+
+        void peaks(long frontierSize, long closedSize) {
+            if(frontierSize > frontierPeak) frontierPeak = frontierSize;
+            if(closedSize > closedPeak) closedPeak = closedSize;
+        }
+
+        //setter, timing heuristic evaluations adds two clock reads to each one so it is off by default
+        public void setTimeHeuristics(boolean timeHeuristics) { this.timeHeuristics = timeHeuristics; }
+
+        //getters
+        public int getAlgorithm() { return this.algorithm; }
+        public int getHeuristic() { return this.heuristic; }
+        public int getWidth() { return this.width; }
+        public long getBoard() { return this.board; }
+        public int getDepth() { return this.depth; }
+        public boolean isSolved() { return this.depth >= 0; }
+        public long getGenerated() { return this.generated; }
+        public long getExpanded() { return this.expanded; }
+        public long getDuplicates() { return this.duplicates; }
+        public long getReopenings() { return this.reopenings; }
+        public long getFrontierPeak() { return this.frontierPeak; }
+        public long getClosedPeak() { return this.closedPeak; }
+        public long getHeuristicNanos() { return this.heuristicNanos; }
+        public long getWallNanos() { return this.wallNanos; }
+        public boolean isTimingHeuristics() { return this.timeHeuristics; }
+
+        @Override
+        public String toString() {
+            return "Generated: "+generated+" | Expanded: "+expanded+" | Duplicates: "+duplicates+" | Reopenings: "+reopenings
+                    +" | Frontier Peak: "+frontierPeak+" | Closed Peak: "+closedPeak
+                    +" | Heuristic(ms): "+(heuristicNanos/1000000.0)+" | Runtime(ms): "+(wallNanos/1000000.0);
+        }
+    }
+
+    //listener told of every search run through the solve function, called on the searching thread
+    public interface SearchListener {
+        void searchFinished(SearchMetrics metrics, Node solution);
+    }
+
+    private static final List<SearchListener> searchListeners = new CopyOnWriteArrayList<SearchListener>();
+
+    public static void addSearchListener(SearchListener listener) { searchListeners.add(listener); }
+    public static void removeSearchListener(SearchListener listener) { searchListeners.remove(listener); }
+
+    //flight recorder event of one search, committed only while a recording enables it
+    @Name("puzzle.Search")
+    @Label("Puzzle Search")
+    @Category("Puzzle")
+    public static class SearchEvent extends Event {
+        @Label("Algorithm") int algorithm;
+        @Label("Heuristic") int heuristic;
+        @Label("Width") int width;
+        @Label("Puzzle") long board;
+        @Label("Solution Depth") int depth;
+        @Label("Generated") long generated;
+        @Label("Expanded") long expanded;
+        @Label("Duplicates") long duplicates;
+        @Label("Reopenings") long reopenings;
+        @Label("Frontier Peak") long frontierPeak;
+        @Label("Closed Peak") long closedPeak;
+        @Label("Heuristic Time") @Timespan long heuristicTime;
+    }
+
+    //histogram of latencies with log buckets split into linear sub-buckets, values within about 3% of their bucket
+    //recording is lock free so batch threads can share one histogram
+    public static class LatencyHistogram {
+
+        //sub-buckets per power of two and the buckets needed for any positive long
+        private static final int SUB_BITS = 5;
+        private static final int SUB_BUCKETS = 1 << SUB_BITS;
+        private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_BUCKETS;
+
+        //attributes
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder total = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        //function to find the bucket of a value, values below the sub-bucket count have their own bucket
+        private static int bucket(long value) {
+            if(value < SUB_BUCKETS) return (int) value;
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        //function to find the highest value that falls into a bucket
+        private static long highestValue(int bucket) {
+            if(bucket < SUB_BUCKETS) return bucket;
+            int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+            long low = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BITS);
+            return low + (1L << (exponent - SUB_BITS)) - 1;
+        }
+
+        public void record(long value) {
+            if(value < 0) value = 0;
+            counts.incrementAndGet(bucket(value));
+            total.increment();
+            sum.add(value);
+            max.accumulate(value);
+        }
+
+        public long getCount() { return total.sum(); }
+        public long getMax() { return max.get(); }
+        public double getMean() { long n = getCount(); return n == 0 ? 0 : (double) sum.sum() / n; }
+
+        //function to get the value at or below which a percentage of the recorded values fall
+        public long percentile(double percent) {
+            long n = getCount();
+            if(n == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(percent / 100.0 * n));
+            long seen = 0;
+            for(int b = 0; b < BUCKETS; b++) {
+                seen += counts.get(b);
+                if(seen >= rank) return Math.min(highestValue(b), getMax());
+            }
+            return getMax();
+        }
+
+        //function to describe the histogram's percentiles of nanosecond values in milliseconds
+        public String summary() {
+            return "Count: "+getCount()+" | Mean(ms): "+(getMean()/1000000.0)+" | p50(ms): "+(percentile(50)/1000000.0)
+                    +" | p90(ms): "+(percentile(90)/1000000.0)+" | p99(ms): "+(percentile(99)/1000000.0)
+                    +" | p99.9(ms): "+(percentile(99.9)/1000000.0)+" | Max(ms): "+(getMax()/1000000.0);
+        }
+    }
+
+    //search latency histograms of every algorithm and heuristic, recorded by the solve function
+    private static final ConcurrentHashMap<Integer, LatencyHistogram> latencyHistograms = new ConcurrentHashMap<Integer, LatencyHistogram>();
+
+    //function to get the search latency histogram of an algorithm and heuristic
+    //the Distance Table algorithm records under heuristic 4 whichever heuristic is chosen, it only uses that table
+    public static LatencyHistogram latencyHistogram(int a, int h) {
+        return latencyHistograms.computeIfAbsent(a * 16 + h, k -> new LatencyHistogram());
+    }
+
+    //function to publish a finished search to the latency histograms, listeners and flight recorder
+    static void publishSearch(SearchMetrics metrics, Node solution, SearchEvent event) {
+        latencyHistogram(metrics.getAlgorithm(), metrics.getHeuristic()).record(metrics.getWallNanos());
+        for(SearchListener listener : searchListeners)
+            listener.searchFinished(metrics, solution);
+        if(event.shouldCommit()) {
+            event.algorithm = metrics.getAlgorithm();
+            event.heuristic = metrics.getHeuristic();
+            event.width = metrics.getWidth();
+            event.board = metrics.getBoard();
+            event.depth = metrics.getDepth();
+            event.generated = metrics.getGenerated();
+            event.expanded = metrics.getExpanded();
+            event.duplicates = metrics.getDuplicates();
+            event.reopenings = metrics.getReopenings();
+            event.frontierPeak = metrics.getFrontierPeak();
+            event.closedPeak = metrics.getClosedPeak();
+            event.heuristicTime = metrics.getHeuristicNanos();
+            event.commit();
+        }
+    }
+
+    //reusable frontier and explored set storage for searches run one after another on a thread
+    public static class SearchArena {
+
+        //attributes
+        private final OpenList treeFrontier;
+        private final OpenList frontier;
+        private final ClosedSet explored;
+        private final SearchMetrics metrics;
+        private ForkJoinPool pool = ForkJoinPool.commonPool();
+        private int expansionLimit = Integer.MAX_VALUE;
+
+        //constructor using binary heap frontiers
+        public SearchArena() {
+            this(false);
+        }
+
+        //constructor choosing bucket queue or binary heap frontiers
+        public SearchArena(boolean bucketQueue) {
+            this.treeFrontier = openList(bucketQueue, false);
+            this.frontier = openList(bucketQueue, true);
+            this.explored = new ClosedSet();
+            this.metrics = new SearchMetrics();
+        }
+
+        //function to get the counters of the latest search run with this arena
+        public SearchMetrics getMetrics() { return this.metrics; }
+
+        //function to get the pool parallel IDA* search forks on, null searches in the calling thread
+        public ForkJoinPool getPool() { return this.pool; }
+
+        //function to set the pool parallel IDA* search forks on, null for callers that are already one of many workers
+        public void setPool(ForkJoinPool pool) { this.pool = pool; }
+
+        //function to get the expansions after which searches without a memory bound give up
+        public int getExpansionLimit() { return this.expansionLimit; }
+
+        //function to set the expansions after which graph, bidirectional, weighted and ARA* searches give up
+        public void setExpansionLimit(int expansionLimit) { this.expansionLimit = expansionLimit; }
+
+        //function to empty the storage, keeping its capacity
+        public void clear() {
+            treeFrontier.clear();
+            frontier.clear();
+            explored.clear();
+        }
+    }
+
+    //A* tree search
+    public static Node aStarTreeSearch(Node root, int x) {
+        Node sol = aStarTreeSearch(root, x, new SearchArena(), TREE_SEARCH_LIMIT);
+        if(sol == null) {
+            System.out.println("Not enough memory to reach solution.");
+            System.out.println("search cost > 7,000,000 nodes");
+        }
+        return sol;
+    }
+
+    //function to evaluate the initial state of a search, timing it if the metrics time heuristics
+    static void evaluateRoot(Node root, int x, SearchMetrics metrics) {
+        long start = metrics.timeHeuristics ? System.nanoTime() : 0;
+        root.setHeuristic(heuristicX(root.getBoard(), x, root.getSize()));
+        if(metrics.timeHeuristics) metrics.heuristicNanos += System.nanoTime() - start;
+    }
+
+    //A* tree search using an arena's storage, giving up after a number of expansions
+    //counters of the search are left in the arena's metrics
+    public static Node aStarTreeSearch(Node root, int x, SearchArena arena, int limit) {
+
+        //evaluate the initial state, leaf heuristics are derived from their parent's
+        SearchMetrics metrics = arena.metrics;
+        metrics.begin(root, 1, x);
+        long solution = root.getSize().solution;
+        evaluateRoot(root, x, metrics);
+
+        //initialize the frontier using the initial state of problem
+        arena.clear();
+        OpenList frontier = arena.treeFrontier;
+        frontier.add(root);
+
+        //loop do
+        int searchCost = 0;
+        while(true) {
+            if(searchCost > limit) break;
+
+            //if the frontier is empty then return failure
+            if(frontier.isEmpty()) break;
+            //choose node with lowest cost and remove from frontier
+            Node current = frontier.remove();
+
+            //if the node contains the goal state, return the solution node
+            if (current.getBoard() == solution) {
+                current.setSearchCost(searchCost);
+                metrics.expanded = searchCost;
+                arena.clear();
+                return metrics.end(current);
+            }
+
+            //expand the chosen node and add leaves to frontier and count expanded node
+            makeLeaves(current,frontier,x,metrics);
+            metrics.peaks(frontier.size(), 0);
+            searchCost++;
+        }
+        metrics.expanded = searchCost;
+        arena.clear();
+        return metrics.end(null);
+    }
+
+    //A* graph search
+    public static Node aStarGraphSearch(Node root, int x) {
+        return aStarGraphSearch(root, x, new SearchArena());
+    }
+
+    //A* graph search using an arena's storage
+    public static Node aStarGraphSearch(Node root, int x, SearchArena arena) {
+        return aStarGraphSearch(root, x, arena, Integer.MAX_VALUE);
+    }
+
+    //A* graph search using an arena's storage, giving up after a number of expansions
+    //counters of the search are left in the arena's metrics
+    public static Node aStarGraphSearch(Node root, int x, SearchArena arena, int limit) {
+
+        //evaluate the initial state, leaf heuristics are derived from their parent's
+        SearchMetrics metrics = arena.metrics;
+        metrics.begin(root, 2, x);
+        long solution = root.getSize().solution;
+        evaluateRoot(root, x, metrics);
+
+        //initialize the frontier using the initial state of problem
+        arena.clear();
+        OpenList frontier = arena.frontier;
+        frontier.add(root);
+
+        //initialize the explored set to be empty
+        ClosedSet explored = arena.explored;
+
+        //loop do
+        int searchCost = 0;
+        while(true) {
+            if(searchCost > limit) break;
+
+            //if the frontier is empty then return failure
+            if(frontier.isEmpty()) break;
+            //choose node with lowest cost and remove from frontier
+            Node current = frontier.remove();
+
+            //if the node contains the goal state, recover the moves from the explored set and return the solution node
+            if (current.getBoard() == solution) {
+                Node sol = replaySolution(root, exploredMoves(current, root.getBoard(), explored), x);
+                sol.setSearchCost(searchCost);
+                metrics.expanded = searchCost;
+                arena.clear();
+                return metrics.end(sol);
+            }
+
+            //add chosen node to explored set with the move that reached it
+            explored.put(current.getBoard(), current.getDepth(), current.getMove());
+            //expand the chosen node and add leaves to frontier, only if not explored or cheaper than their frontier entry
+            makeLeaves(current,frontier,explored,x,metrics);
+            metrics.peaks(frontier.size(), explored.size());
+            //count expanded node
+            searchCost++;
+        }
+
+        metrics.expanded = searchCost;
+        arena.clear();
+        return metrics.end(null);
+    }
+
+    //node of a memory-bounded search, remembers which successors are in memory and the lowest cost of those it forgot
+    private static final class SMANode {
+
+        //attributes
+        final SMANode parent;
+        final long board;
+        final byte blank;
+        final byte move;
+        final int depth;
+        final int heuristic;
+        final long id;
+        int cost;
+        int children;
+        int forgotten = Integer.MAX_VALUE;
+        boolean expanded;
+
+        //constructor
+        SMANode(SMANode parent, long board, int blank, int move, int depth, int heuristic, int cost, long id) {
+            this.parent = parent;
+            this.board = board;
+            this.blank = (byte) blank;
+            this.move = (byte) move;
+            this.depth = depth;
+            this.heuristic = heuristic;
+            this.cost = cost;
+            this.id = id;
+        }
+    }
+
+    //order of the queue of a memory-bounded search, lowest cost and then deepest first, so the last node is the worst
+    private static final Comparator<SMANode> smaComparator = new Comparator<SMANode>() {
+        @Override
+        public int compare(SMANode n1, SMANode n2) {
+            if(n1.cost != n2.cost) return n1.cost < n2.cost ? -1 : 1;
+            if(n1.depth != n2.depth) return n1.depth > n2.depth ? -1 : 1;
+            return Long.compare(n1.id, n2.id);
+        }
+    };
+
+    //approximate heap held per node of a memory-bounded search, the node and its queue entry
+    public static final int BYTES_PER_SMA_NODE = 96;
+
+    //function to get the node budget of a memory-bounded search that fits in a number of bytes
+    public static int smaNodeBudget(long bytes) {
+        return (int) Math.max(2, Math.min(bytes / BYTES_PER_SMA_NODE, Integer.MAX_VALUE));
+    }
+
+    //simplified memory-bounded A* search keeping at most a number of nodes
+    public static Node smaStarSearch(Node root, int x, int nodeBudget) {
+        return smaStarSearch(root, x, nodeBudget, new SearchMetrics());
+    }
+
+    //simplified memory-bounded A* search keeping at most a number of nodes, recording its counters in the metrics
+    //once the budget is full the worst leaf is forgotten and its cost backed up to its parent, which stays queued
+    //with that cost until it regenerates the successors it forgot, so the solution found is optimal if its path fits
+    //returns null if the budget can not hold a path to the solution
+    public static Node smaStarSearch(Node root, int x, int nodeBudget, SearchMetrics metrics) {
+
+        //evaluate the initial state, leaf heuristics are derived from their parent's
+        metrics.begin(root, 6, x);
+        evaluateRoot(root, x, metrics);
+        BoardSize size = root.getSize();
+        boolean timed = metrics.timeHeuristics;
+        //a path through a node deeper than this can not fit in the budget
+        int maxDepth = Math.max(0, nodeBudget - 1);
+
+        //initialize the queue using the initial state of problem
+        //the leaves, nodes without successors in memory, are also kept in their own set so the worst is the last one
+        TreeSet<SMANode> queue = new TreeSet<SMANode>(smaComparator);
+        TreeSet<SMANode> leaves = new TreeSet<SMANode>(smaComparator);
+        long ids = 0;
+        SMANode first = new SMANode(null, root.getBoard(), root.getBlank(), -1, 0, root.getHeuristic(), root.getCost(), ids++);
+        queue.add(first);
+        leaves.add(first);
+        int nodes = 1;
+        long expanded = 0;
+        Node sol = null;
+
+        //loop do
+        while(!queue.isEmpty()) {
+            //if no node can lead to a solution in the budget then return failure
+            if(queue.first().cost == Integer.MAX_VALUE) break;
+            //choose the node with lowest cost, deepest first
+            SMANode current = queue.pollFirst();
+            if(current.children == 0) leaves.remove(current);
+
+            //if the node contains the goal state, replay its moves to build the solution path
+            if(current.board == size.solution) {
+                char [] moves = new char [current.depth];
+                for(SMANode n = current; n.parent != null; n = n.parent)
+                    moves[n.depth - 1] = MOVE_LETTERS.charAt(n.move);
+                sol = replaySolution(root, new String(moves), x);
+                sol.setSearchCost((int) Math.min(expanded, Integer.MAX_VALUE));
+                break;
+            }
+
+            //generate the successors not in memory except the one undoing the last move
+            //their costs never drop below the cost of the node, which is the lowest of any forgotten successor
+            if(current.expanded) metrics.reopenings++;
+            int [] targets = size.neighbors[current.blank];
+            int generated = 0;
+            for(int d = 0; d < 4; d++) {
+                int target = targets[d];
+                if(target < 0 || d == (current.move ^ 1) || (current.children & 1 << d) != 0) continue;
+                long leafBoard = moveBlank(current.board, current.blank, target);
+                long start = timed ? System.nanoTime() : 0;
+                int h = leafHeuristic(current.heuristic, leafBoard, tileAt(current.board, target), target, current.blank, x, size);
+                if(timed) metrics.heuristicNanos += System.nanoTime() - start;
+                int depth = current.depth + 1;
+                int cost = depth > maxDepth || depth == maxDepth && leafBoard != size.solution ? Integer.MAX_VALUE : Math.max(current.cost, depth + h);
+                SMANode leaf = new SMANode(current, leafBoard, target, d, depth, h, cost, ids++);
+                queue.add(leaf);
+                leaves.add(leaf);
+                current.children |= 1 << d;
+                generated++;
+            }
+            current.expanded = true;
+            current.forgotten = Integer.MAX_VALUE;
+            nodes += generated;
+            expanded++;
+            metrics.leaves(generated, 0, 0);
+            //a node without successors can not lead to a solution
+            if(current.children == 0) {
+                current.cost = Integer.MAX_VALUE;
+                queue.add(current);
+                leaves.add(current);
+            }
+
+            //while over budget, forget the worst leaf and back its cost up to its parent
+            //the root is never forgotten, a budget too small for it ends when its cost can no longer fit a path
+            while(nodes > nodeBudget && leaves.last().parent != null) {
+                SMANode worst = leaves.pollLast();
+                queue.remove(worst);
+                nodes--;
+                //the parent is queued again costing the cheapest successor it forgot
+                SMANode parent = worst.parent;
+                queue.remove(parent);
+                parent.children &= ~(1 << worst.move);
+                parent.forgotten = Math.min(parent.forgotten, worst.cost);
+                parent.cost = parent.forgotten;
+                queue.add(parent);
+                if(parent.children == 0) leaves.add(parent);
+            }
+            metrics.peaks(queue.size(), nodes - queue.size());
+        }
+        metrics.expanded = expanded;
+        return metrics.end(sol);
+    }
+
+    //default weight of weighted A* search and the first weight of ARA* search, lowered by the step after each solution
+    public static final double WEIGHT = 2.0;
+    public static final double ARA_WEIGHT_STEP = 0.5;
+
+    //time ARA* search may spend improving its solution
+    public static final long ARA_DEADLINE_NANOS = 1000000000L;
+
+    //solution of an anytime search with the bound on its cost proven when it was found
+    public static class AnytimeSolution {
+
+        //attributes
+        private final Node solution;
+        private final double weight;
+        private final double bound;
+        private final long expansions;
+        private final long nanos;
+
+        //constructor
+        AnytimeSolution(Node solution, double weight, double bound, long expansions, long nanos) {
+            this.solution = solution;
+            this.weight = weight;
+            this.bound = bound;
+            this.expansions = expansions;
+            this.nanos = nanos;
+        }
+
+        //getters, the solution costs at most bound times the optimal solution
+        public Node getSolution() { return this.solution; }
+        public double getWeight() { return this.weight; }
+        public double getBound() { return this.bound; }
+        public long getExpansions() { return this.expansions; }
+        public long getNanos() { return this.nanos; }
+
+        @Override
+        public String toString() {
+            return "Weight: "+weight+" | Bound: "+bound+" | Depth: "+solution.getDepth()+" | Expanded: "+expansions+" | Runtime(ms): "+(nanos/1000000.0);
+        }
+    }
+
+    //state of an anytime search, the cheapest known path cost to a board and the move that reached it
+    private static final class AnytimeState {
+
+        //attributes
+        final long board;
+        final byte blank;
+        final int heuristic;
+        int depth;
+        byte move;
+        double key;
+        int closed = -1;
+        boolean open;
+        boolean inconsistent;
+
+        //constructor
+        AnytimeState(long board, int blank, int heuristic, int depth, int move) {
+            this.board = board;
+            this.blank = (byte) blank;
+            this.heuristic = heuristic;
+            this.depth = depth;
+            this.move = (byte) move;
+        }
+    }
+
+    //order of the frontier of an anytime search, lowest weighted cost and then deepest first
+    private static final Comparator<AnytimeState> anytimeComparator = new Comparator<AnytimeState>() {
+        @Override
+        public int compare(AnytimeState s1, AnytimeState s2) {
+            if(s1.key != s2.key) return s1.key < s2.key ? -1 : 1;
+            if(s1.depth != s2.depth) return s1.depth > s2.depth ? -1 : 1;
+            return Long.compare(s1.board, s2.board);
+        }
+    };
+
+    //weighted A* search with the default weight
+    public static Node weightedAStarSearch(Node root, int x) {
+        return weightedAStarSearch(root, x, WEIGHT);
+    }
+
+    //weighted A* search, orders the frontier by depth + weight * heuristic, the solution costs at most weight times the optimal
+    public static Node weightedAStarSearch(Node root, int x, double weight) {
+        return weightedAStarSearch(root, x, weight, new SearchMetrics());
+    }
+
+    //weighted A* search, recording its counters in the metrics
+    public static Node weightedAStarSearch(Node root, int x, double weight, SearchMetrics metrics) {
+        return weightedAStarSearch(root, x, weight, Integer.MAX_VALUE, metrics);
+    }
+
+    //weighted A* search, giving up after a number of expansions
+    public static Node weightedAStarSearch(Node root, int x, double weight, int limit, SearchMetrics metrics) {
+        metrics.begin(root, 8, x);
+        return metrics.end(anytimeSearch(root, x, weight, 0, Long.MAX_VALUE, limit, null, metrics));
+    }
+
+    //ARA* search with the default weight, step and deadline
+    public static Node araStarSearch(Node root, int x) {
+        return araStarSearch(root, x, WEIGHT, ARA_WEIGHT_STEP, ARA_DEADLINE_NANOS, null);
+    }
+
+    //ARA* search, a weighted A* search that lowers its weight by a step after each solution and searches again, reusing
+    //the states it already reached, until the weight is 1 and the solution optimal or the deadline passes
+    //each solution with its proven bound is added to the list if one is given, the best solution is returned
+    public static Node araStarSearch(Node root, int x, double weight, double step, long deadlineNanos, List<AnytimeSolution> solutions) {
+        return araStarSearch(root, x, weight, step, deadlineNanos, solutions, new SearchMetrics());
+    }
+
+    //ARA* search, recording its counters in the metrics
+    public static Node araStarSearch(Node root, int x, double weight, double step, long deadlineNanos, List<AnytimeSolution> solutions, SearchMetrics metrics) {
+        return araStarSearch(root, x, weight, step, deadlineNanos, Integer.MAX_VALUE, solutions, metrics);
+    }
+
+    //ARA* search, stopping like at the deadline after a number of expansions
+    public static Node araStarSearch(Node root, int x, double weight, double step, long deadlineNanos, int limit, List<AnytimeSolution> solutions, SearchMetrics metrics) {
+        metrics.begin(root, 9, x);
+        return metrics.end(anytimeSearch(root, x, weight, step, deadlineNanos, limit, solutions, metrics));
+    }
+
+    //function to run weighted A* searches of falling weights, only one if the step is 0
+    //states whose cost fell after they were expanded wait in an inconsistent list for the next search instead of being reopened
+    //past the deadline or the expansion limit the best solution so far is returned
+    private static Node anytimeSearch(Node root, int x, double weight, double step, long deadlineNanos, int limit, List<AnytimeSolution> solutions, SearchMetrics metrics) {
+        if(weight < 1) throw new IllegalArgumentException("Weight must be at least 1: "+weight);
+        long start = System.nanoTime();
+        evaluateRoot(root, x, metrics);
+        BoardSize size = root.getSize();
+        boolean timed = metrics.timeHeuristics;
+
+        //initialize the frontier using the initial state of problem
+        HashMap<Long, AnytimeState> states = new HashMap<Long, AnytimeState>();
+        TreeSet<AnytimeState> frontier = new TreeSet<AnytimeState>(anytimeComparator);
+        List<AnytimeState> inconsistent = new ArrayList<AnytimeState>();
+        AnytimeState first = new AnytimeState(root.getBoard(), root.getBlank(), root.getHeuristic(), 0, -1);
+        first.key = weight * first.heuristic;
+        first.open = true;
+        frontier.add(first);
+        states.put(first.board, first);
+        //a root that is already the goal is never generated as a leaf
+        AnytimeState goal = first.board == size.solution ? first : null;
+        Node best = null;
+        long expanded = 0;
+
+        for(int search = 0; ; search++) {
+            //expand while a frontier state could still lead to a cheaper weighted solution than the goal's
+            boolean expired = false;
+            while(!frontier.isEmpty() && (goal == null || goal.depth > frontier.first().key)) {
+                if(expanded > limit || (expanded & 1023) == 0 && System.nanoTime() - start > deadlineNanos) {
+                    expired = true;
+                    break;
+                }
+                AnytimeState current = frontier.pollFirst();
+                current.open = false;
+                current.closed = search;
+                expanded++;
+                int [] targets = size.neighbors[current.blank];
+                int generated = 0;
+                int duplicates = 0;
+                int reopenings = 0;
+                for(int d = 0; d < 4; d++) {
+                    int target = targets[d];
+                    if(target < 0 || d == (current.move ^ 1)) continue;
+                    long leafBoard = moveBlank(current.board, current.blank, target);
+                    int depth = current.depth + 1;
+                    generated++;
+                    AnytimeState leaf = states.get(leafBoard);
+                    if(leaf == null) {
+                        long hStart = timed ? System.nanoTime() : 0;
+                        int h = leafHeuristic(current.heuristic, leafBoard, tileAt(current.board, target), target, current.blank, x, size);
+                        if(timed) metrics.heuristicNanos += System.nanoTime() - hStart;
+                        leaf = new AnytimeState(leafBoard, target, h, depth, d);
+                        states.put(leafBoard, leaf);
+                        if(leafBoard == size.solution) goal = leaf;
+                    }
+                    else if(depth < leaf.depth) {
+                        if(leaf.open) frontier.remove(leaf);
+                        leaf.depth = depth;
+                        leaf.move = (byte) d;
+                        reopenings++;
+                    }
+                    else {
+                        duplicates++;
+                        continue;
+                    }
+                    //a state already expanded in this search waits for the next one
+                    if(leaf.closed == search) {
+                        if(!leaf.inconsistent) {
+                            leaf.inconsistent = true;
+                            inconsistent.add(leaf);
+                        }
+                        continue;
+                    }
+                    leaf.key = leaf.depth + weight * leaf.heuristic;
+                    leaf.open = true;
+                    frontier.add(leaf);
+                }
+                metrics.leaves(generated, duplicates, reopenings);
+                metrics.peaks(frontier.size(), states.size() - frontier.size());
+            }
+            if(expired || goal == null) break;
+
+            //no state left to expand can reach the goal for less than its lowest unweighted cost
+            double lowest = goal.depth;
+            for(AnytimeState s : frontier)
+                lowest = Math.min(lowest, s.depth + s.heuristic);
+            for(AnytimeState s : inconsistent)
+                lowest = Math.min(lowest, s.depth + s.heuristic);
+            double bound = goal.depth == 0 ? 1 : Math.min(weight, goal.depth / Math.max(lowest, 1));
+
+            //walk the moves back from the goal to build the solution path
+            if(best == null || goal.depth < best.getDepth()) {
+                StringBuilder moves = new StringBuilder(goal.depth);
+                for(AnytimeState s = goal; s.move >= 0; ) {
+                    moves.append(MOVE_LETTERS.charAt(s.move));
+                    s = states.get(undoMove(s.board, s.blank, s.move, size));
+                }
+                best = replaySolution(root, moves.reverse().toString(), x);
+            }
+            best.setSearchCost((int) Math.min(expanded, Integer.MAX_VALUE));
+            if(solutions != null) solutions.add(new AnytimeSolution(best, weight, bound, expanded, System.nanoTime() - start));
+            if(step <= 0 || bound <= 1 || weight <= 1) break;
+
+            //lower the weight and search again from the frontier and the inconsistent states
+            weight = Math.max(1, Math.min(weight - step, bound));
+            List<AnytimeState> open = new ArrayList<AnytimeState>(frontier);
+            open.addAll(inconsistent);
+            frontier.clear();
+            for(AnytimeState s : open) {
+                s.key = s.depth + weight * s.heuristic;
+                s.open = true;
+                s.inconsistent = false;
+                frontier.add(s);
+            }
+            inconsistent.clear();
+        }
+        metrics.expanded = expanded;
+        return best;
+    }
+
+    //default directory of the working files of external A* search
+    public static final String EXTERNAL_DIRECTORY = System.getProperty("java.io.tmpdir");
+
+    //bytes of one state in the files of external A* search, its packed puzzle and the move that reached it
+    public static final int BYTES_PER_EXTERNAL_RECORD = 8;
+
+    //records of a file mapped at once when walking back the solution path
+    private static final long EXTERNAL_SEGMENT_RECORDS = 1L << 27;
+
+    //function to get how many states external A* search sorts in memory at once within a number of bytes
+    public static int externalRunRecords(long bytes) {
+        return (int) Math.max(16, Math.min(bytes / BYTES_PER_EXTERNAL_RECORD, Integer.MAX_VALUE - 8));
+    }
+
+    //function to pack a puzzle and the move that reached it, -1 for none, into one record
+    //the last cell of a 15-puzzle makes room for the move, it holds the one tile missing from the other cells
+    //records sort by puzzle first, so duplicates of a puzzle are next to each other in a sorted file
+    static long externalRecord(long board, int move) {
+        return (board << 4) | (move & 0xF);
+    }
+
+    //function to get the packed puzzle of a record
+    static long externalBoard(long record, BoardSize size) {
+        long board = record >>> 4;
+        if(size.cells == 16) {
+            int missing = 120;
+            for(int i = 0; i < 15; i++)
+                missing -= tileAt(board, i);
+            board |= ((long) missing) << 60;
+        }
+        return board;
+    }
+
+    //function to get the move of a record, -1 for the initial puzzle
+    static int externalMove(long record) {
+        int move = (int) record & 0xF;
+        return move == 0xF ? -1 : move;
+    }
+
+    //sorted run of records read from a file or from a sorted array in memory
+    private static final class RecordRun implements Closeable {
+
+        //attributes
+        private final long [] records;
+        private final int length;
+        private int index;
+        private final DataInputStream in;
+        private long remaining;
+        long current;
+
+        //constructor for the first records of an array
+        RecordRun(long [] records, int length) {
+            this.records = records;
+            this.length = length;
+            this.in = null;
+        }
+
+        //constructor for a file
+        RecordRun(Path file) throws IOException {
+            this.records = null;
+            this.length = 0;
+            this.remaining = Files.size(file) / BYTES_PER_EXTERNAL_RECORD;
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+        }
+
+        //function to move to the next record, false at the end of the run
+        boolean advance() throws IOException {
+            if(records != null) {
+                if(index == length) return false;
+                current = records[index++];
+                return true;
+            }
+            if(remaining == 0) return false;
+            current = in.readLong();
+            remaining--;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if(in != null) in.close();
+        }
+    }
+
+    //merge of sorted runs, giving their records in order of puzzle
+    private static final class RecordMerge implements Closeable {
+
+        //attributes
+        private final PriorityQueue<RecordRun> runs = new PriorityQueue<RecordRun>((r1, r2) -> Long.compare(r1.current >> 4, r2.current >> 4));
+        private final List<RecordRun> all = new ArrayList<RecordRun>();
+
+        //function to add a run to the merge
+        void add(RecordRun run) throws IOException {
+            all.add(run);
+            if(run.advance()) runs.add(run);
+        }
+
+        boolean isEmpty() { return runs.isEmpty(); }
+
+        long peek() { return runs.peek().current; }
+
+        //function to take the lowest record
+        long next() throws IOException {
+            RecordRun run = runs.poll();
+            long record = run.current;
+            if(run.advance()) runs.add(run);
+            return record;
+        }
+
+        @Override
+        public void close() throws IOException {
+            for(RecordRun run : all)
+                run.close();
+        }
+    }
+
+    //states of one depth and heuristic value of external A* search
+    //generated states are appended to the open file as they come, each expansion sorts them into a closed file
+    private static final class ExternalBucket {
+
+        //attributes
+        final int depth;
+        final int heuristic;
+        final Path open;
+        final List<Path> closed = new ArrayList<Path>();
+        DataOutputStream writer;
+        long openRecords;
+
+        //constructor
+        ExternalBucket(Path directory, int depth, int heuristic) {
+            this.depth = depth;
+            this.heuristic = heuristic;
+            this.open = directory.resolve(depth+"-"+heuristic+".open");
+        }
+    }
+
+    //state of an external A* search, its buckets of states kept in files of a working directory
+    private static final class ExternalSearch {
+
+        //attributes
+        final Path directory;
+        final BoardSize size;
+        final int x;
+        final int runRecords;
+        final SearchMetrics metrics;
+        final boolean timed;
+        //buckets by cost and then depth, those with generated states waiting to be expanded are pending
+        final TreeMap<Long, ExternalBucket> buckets = new TreeMap<Long, ExternalBucket>();
+        final TreeSet<Long> pending = new TreeSet<Long>();
+        //buckets of the depth states are being generated at, by heuristic value, so adding a state looks up no map
+        ExternalBucket [] successors = new ExternalBucket [64];
+        int successorDepth = -1;
+        long [] buffer = new long [0];
+        long pendingRecords;
+        long closedRecords;
+        long expanded;
+        long goal;
+
+        //constructor
+        ExternalSearch(Path directory, BoardSize size, int x, int runRecords, SearchMetrics metrics) {
+            this.directory = directory;
+            this.size = size;
+            this.x = x;
+            this.runRecords = runRecords;
+            this.metrics = metrics;
+            this.timed = metrics.timeHeuristics;
+        }
+
+        //function to get the order of a bucket, lowest cost first and then shallowest
+        static long order(int depth, int heuristic) {
+            return ((long) (depth + heuristic) << 32) | depth;
+        }
+
+        //function to get the bucket of a depth and heuristic value, made if it does not exist yet
+        private ExternalBucket bucket(int depth, int heuristic) {
+            if(depth != successorDepth) {
+                Arrays.fill(successors, null);
+                successorDepth = depth;
+            }
+            if(heuristic >= successors.length) successors = Arrays.copyOf(successors, Math.max(heuristic + 1, successors.length << 1));
+            ExternalBucket bucket = successors[heuristic];
+            if(bucket != null) return bucket;
+            long key = order(depth, heuristic);
+            bucket = buckets.get(key);
+            if(bucket == null) {
+                bucket = new ExternalBucket(directory, depth, heuristic);
+                buckets.put(key, bucket);
+            }
+            successors[heuristic] = bucket;
+            return bucket;
+        }
+
+        //function to append a generated state to the open file of its bucket
+        //a bucket is pending from its first generated state until it is expanded
+        void add(int depth, int heuristic, long record) throws IOException {
+            ExternalBucket bucket = bucket(depth, heuristic);
+            if(bucket.writer == null)
+                bucket.writer = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(bucket.open, StandardOpenOption.CREATE, StandardOpenOption.APPEND), 1 << 14));
+            bucket.writer.writeLong(record);
+            if(bucket.openRecords++ == 0) pending.add(order(depth, heuristic));
+            pendingRecords++;
+        }
+
+        //function to expand the pending buckets in order until the solution is reached, its depth or -1 if there is none
+        int run(Node root) throws IOException {
+            add(0, root.getHeuristic(), externalRecord(root.getBoard(), -1));
+            while(!pending.isEmpty()) {
+                ExternalBucket bucket = buckets.get(pending.pollFirst());
+                if(expand(bucket)) return bucket.depth;
+                metrics.peaks(pendingRecords, closedRecords);
+            }
+            return -1;
+        }
+
+        //function to remove the duplicates of a bucket's generated states and expand the rest, true if one is the solution
+        //a state of depth g can only have been reached before at depth g - 1 or g - 2 with the same heuristic value,
+        //so only those closed files are merged against the sorted generated states, all reads and writes are sequential
+        private boolean expand(ExternalBucket bucket) throws IOException {
+            bucket.writer.close();
+            bucket.writer = null;
+            pendingRecords -= bucket.openRecords;
+            List<Path> runs = new ArrayList<Path>();
+            Path closed = directory.resolve(bucket.depth+"-"+bucket.heuristic+".closed"+bucket.closed.size());
+            long kept = 0;
+            boolean solved = false;
+            try (RecordMerge generated = sortRuns(bucket, runs);
+                 RecordMerge previous = new RecordMerge();
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(closed), 1 << 16))) {
+                for(int depth = bucket.depth; depth >= bucket.depth - 2 && depth >= 0; depth--) {
+                    ExternalBucket earlier = buckets.get(order(depth, bucket.heuristic));
+                    if(earlier != null)
+                        for(Path file : earlier.closed)
+                            previous.add(new RecordRun(file));
+                }
+                long last = 0;
+                boolean first = true;
+                int duplicates = 0;
+                while(!generated.isEmpty()) {
+                    long record = generated.next();
+                    long state = record >> 4;
+                    if(!first && state == last) {
+                        duplicates++;
+                        continue;
+                    }
+                    first = false;
+                    last = state;
+                    while(!previous.isEmpty() && (previous.peek() >> 4) < state)
+                        previous.next();
+                    if(!previous.isEmpty() && (previous.peek() >> 4) == state) {
+                        duplicates++;
+                        continue;
+                    }
+                    out.writeLong(record);
+                    kept++;
+                    long board = externalBoard(record, size);
+                    if(board == size.solution) {
+                        goal = record;
+                        solved = true;
+                        break;
+                    }
+                    expandState(board, externalMove(record), bucket.depth, bucket.heuristic);
+                }
+                metrics.leaves(0, duplicates, 0);
+            }
+            bucket.closed.add(closed);
+            bucket.openRecords = 0;
+            closedRecords += kept;
+            Files.delete(bucket.open);
+            for(Path run : runs)
+                Files.delete(run);
+            return solved;
+        }
+
+        //function to sort a bucket's open file, in memory if it fits or else into sorted run files to be merged
+        private RecordMerge sortRuns(ExternalBucket bucket, List<Path> runs) throws IOException {
+            RecordMerge merge = new RecordMerge();
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(bucket.open), 1 << 16))) {
+                long remaining = bucket.openRecords;
+                if(buffer.length < Math.min(remaining, runRecords))
+                    buffer = new long [(int) Math.min(remaining, runRecords)];
+                while(remaining > 0) {
+                    int count = (int) Math.min(remaining, runRecords);
+                    for(int i = 0; i < count; i++)
+                        buffer[i] = in.readLong();
+                    remaining -= count;
+                    Arrays.sort(buffer, 0, count);
+                    if(remaining == 0 && runs.isEmpty()) {
+                        merge.add(new RecordRun(buffer, count));
+                        break;
+                    }
+                    Path run = directory.resolve(bucket.depth+"-"+bucket.heuristic+".run"+runs.size());
+                    runs.add(run);
+                    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 1 << 16))) {
+                        for(int i = 0; i < count; i++)
+                            out.writeLong(buffer[i]);
+                    }
+                    merge.add(new RecordRun(run));
+                }
+            }
+            return merge;
+        }
+
+        //function to append the successors of a state to their buckets, except the one undoing its move
+        private void expandState(long board, int move, int depth, int heuristic) throws IOException {
+            int blank = blankIndex(board);
+            int [] targets = size.neighbors[blank];
+            int generated = 0;
+            for(int d = 0; d < 4; d++) {
+                int target = targets[d];
+                if(target < 0 || d == (move ^ 1)) continue;
+                long leafBoard = moveBlank(board, blank, target);
+                long start = timed ? System.nanoTime() : 0;
+                int h = leafHeuristic(heuristic, leafBoard, tileAt(board, target), target, blank, x, size);
+                if(timed) metrics.heuristicNanos += System.nanoTime() - start;
+                add(depth + 1, h, externalRecord(leafBoard, d));
+                generated++;
+            }
+            metrics.leaves(generated, 0, 0);
+            expanded++;
+        }
+
+        //function to walk back from the solution to the initial puzzle, finding each parent's move in its closed files
+        String moves(int depth) throws IOException {
+            char [] moves = new char [depth];
+            long board = externalBoard(goal, size);
+            int blank = blankIndex(board);
+            int move = externalMove(goal);
+            for(int d = depth; d > 0; d--) {
+                moves[d - 1] = MOVE_LETTERS.charAt(move);
+                board = undoMove(board, blank, move, size);
+                blank = size.neighbors[blank][move ^ 1];
+                ExternalBucket parent = buckets.get(order(d - 1, heuristicX(board, x, size)));
+                move = parent == null ? -2 : findMove(parent, board);
+                if(d > 1 && move < 0) throw new IllegalStateException("Closed files do not lead back to the initial puzzle.");
+            }
+            return new String(moves);
+        }
+
+        //function to find the move of a puzzle in the closed files of a bucket by binary search through memory maps, -2 if missing
+        private static int findMove(ExternalBucket bucket, long board) throws IOException {
+            long state = externalRecord(board, 0) >> 4;
+            for(Path file : bucket.closed) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    long records = channel.size() / BYTES_PER_EXTERNAL_RECORD;
+                    ByteBuffer [] segments = new ByteBuffer [(int) ((records + EXTERNAL_SEGMENT_RECORDS - 1) / EXTERNAL_SEGMENT_RECORDS)];
+                    long low = 0;
+                    long high = records - 1;
+                    while(low <= high) {
+                        long mid = (low + high) >>> 1;
+                        int segment = (int) (mid / EXTERNAL_SEGMENT_RECORDS);
+                        if(segments[segment] == null) {
+                            long first = segment * EXTERNAL_SEGMENT_RECORDS;
+                            segments[segment] = channel.map(FileChannel.MapMode.READ_ONLY, first * BYTES_PER_EXTERNAL_RECORD,
+                                    Math.min(EXTERNAL_SEGMENT_RECORDS, records - first) * BYTES_PER_EXTERNAL_RECORD);
+                        }
+                        long record = segments[segment].getLong((int) (mid % EXTERNAL_SEGMENT_RECORDS) * BYTES_PER_EXTERNAL_RECORD);
+                        long probe = record >> 4;
+                        if(probe < state) low = mid + 1;
+                        else if(probe > state) high = mid - 1;
+                        else return externalMove(record);
+                    }
+                }
+            }
+            return -2;
+        }
+
+        //function to close the open files still being written
+        void close() throws IOException {
+            for(ExternalBucket bucket : buckets.values())
+                if(bucket.writer != null) {
+                    bucket.writer.close();
+                    bucket.writer = null;
+                }
+        }
+    }
+
+    //external A* search in the default directory, sorting as many states at once as fit in a quarter of the heap
+    public static Node externalAStarSearch(Node root, int x) {
+        return externalAStarSearch(root, x, Paths.get(EXTERNAL_DIRECTORY), externalRunRecords(Runtime.getRuntime().maxMemory() / 4));
+    }
+
+    //external A* search keeping its states in files of a directory, sorting at most a number of states in memory at once
+    public static Node externalAStarSearch(Node root, int x, Path directory, int runRecords) {
+        return externalAStarSearch(root, x, directory, runRecords, new SearchMetrics());
+    }
+
+    //external A* search, recording its counters in the metrics
+    //states are kept on disk in buckets by depth and heuristic value and expanded in order of cost, then depth, so the
+    //heap only holds one sorted run at a time, duplicates are removed when a bucket is expanded instead of when generated
+    //the frontier peak counts the states waiting in open files and the closed peak the expanded states on disk
+    public static Node externalAStarSearch(Node root, int x, Path directory, int runRecords, SearchMetrics metrics) {
+        metrics.begin(root, 10, x);
+        evaluateRoot(root, x, metrics);
+        Path work = null;
+        ExternalSearch search = null;
+        try {
+            work = Files.createTempDirectory(directory, "search");
+            search = new ExternalSearch(work, root.getSize(), x, Math.max(1, runRecords), metrics);
+            int depth = search.run(root);
+            metrics.expanded = search.expanded;
+            if(depth < 0) return metrics.end(null);
+            Node sol = replaySolution(root, search.moves(depth), x);
+            sol.setSearchCost((int) Math.min(search.expanded, Integer.MAX_VALUE));
+            return metrics.end(sol);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        finally {
+            try {
+                if(search != null) search.close();
+                if(work != null) {
+                    try (DirectoryStream<Path> files = Files.newDirectoryStream(work)) {
+                        for(Path file : files)
+                            Files.deleteIfExists(file);
+                    }
+                    Files.deleteIfExists(work);
+                }
+            }
+            catch (IOException e) {
+                //leave the working files behind rather than hide the search's result
+            }
+        }
+    }
+
+    //statistics of one direction of a bidirectional search
+    public static class DirectionStats {
+
+        //attributes
+        private long expansions;
+        private long nanos;
+
+        //getters
+        public long getExpansions() { return this.expansions; }
+        public long getNanos() { return this.nanos; }
+    }
+
+    //bidirectional A* search state
+    private static class BidirectionalSearch {
+
+        //one direction of the search with its own frontier, explored set and heuristic
+        private static class Side {
+
+            //attributes
+            final IndexedOpenList frontier = new IndexedOpenList(nodeComparator);
+            final HashMap<Long, Node> explored = new HashMap<Long, Node>();
+            final int [][] table;
+            final int x;
+            final BoardSize size;
+            final DirectionStats stats;
+
+            //number of frontier nodes at each depth, to track the lowest frontier depth
+            int [] depthCounts = new int [64];
+            int minDepth = 0;
+
+            //constructor, a table gives incremental heuristics, otherwise heuristic x is evaluated
+            Side(int [][] table, int x, BoardSize size, DirectionStats stats) {
+                this.table = table;
+                this.x = x;
+                this.size = size;
+                this.stats = stats;
+            }
+
+            int heuristic(long board) {
+                if(table == null) return heuristicX(board, x, size);
+                int sum = 0;
+                for(int i = 0; i < size.cells; i++)
+                    sum += table[tileAt(board, i)][i];
+                return sum;
+            }
+
+            int leafHeuristic(int parentHeuristic, long leafBoard, int tile, int from, int to) {
+                if(table == null) return heuristicX(leafBoard, x, size);
+                return parentHeuristic - table[tile][from] + table[tile][to];
+            }
+
+            //functions to keep the frontier depth counts in step with the frontier
+            void countDepth(int depth, int change) {
+                if(depth >= depthCounts.length) depthCounts = Arrays.copyOf(depthCounts, depth << 1);
+                depthCounts[depth] += change;
+                if(change > 0 && depth < minDepth) minDepth = depth;
+            }
+
+            int minDepth() {
+                while(minDepth < depthCounts.length && depthCounts[minDepth] == 0) minDepth++;
+                return minDepth;
+            }
+
+            void add(Node n) {
+                frontier.add(n);
+                countDepth(n.getDepth(), 1);
+            }
+
+            Node remove() {
+                Node n = frontier.remove();
+                countDepth(n.getDepth(), -1);
+                return n;
+            }
+        }
+
+        //attributes
+        final Side forward;
+        final Side backward;
+        final SearchMetrics metrics;
+        int bestCost = Integer.MAX_VALUE;
+        Node meetForward;
+        Node meetBackward;
+
+        //constructor
+        BidirectionalSearch(Side forward, Side backward, SearchMetrics metrics) {
+            this.forward = forward;
+            this.backward = backward;
+            this.metrics = metrics;
+        }
+
+        //function to expand a node of one side, recording any cheaper path through a state the other side has reached
+        void expand(Node current, Side side, Side other) {
+            long start = System.nanoTime();
+            side.explored.put(current.getBoard(), current);
+            long board = current.getBoard();
+            int blank = current.getBlank();
+            int [] targets = side.size.neighbors[blank];
+            boolean timed = metrics.timeHeuristics;
+            int generated = 0;
+            int duplicates = 0;
+            for(int d = 0; d < 4; d++) {
+                int target = targets[d];
+                if(target < 0) continue;
+                generated++;
+                long leafBoard = moveBlank(board, blank, target);
+                if(side.explored.containsKey(leafBoard)) {
+                    duplicates++;
+                    continue;
+                }
+
+                //add the leaf to the frontier or lower the cost of its frontier entry
+                Node leaf = side.frontier.get(leafBoard);
+                if(leaf == null) {
+                    long hStart = timed ? System.nanoTime() : 0;
+                    int h = side.leafHeuristic(current.getHeuristic(), leafBoard, tileAt(board, target), target, blank);
+                    if(timed) metrics.heuristicNanos += System.nanoTime() - hStart;
+                    leaf = new Node(current, leafBoard, target, h, d);
+                    //a leaf costing at least the best path can not lead to a cheaper one
+                    if(leaf.getCost() < bestCost) side.add(leaf);
+                }
+                else if(current.getDepth() + 1 < leaf.getDepth()) {
+                    side.countDepth(leaf.getDepth(), -1);
+                    leaf.setParent(current);
+                    leaf.setMove(d);
+                    leaf.setDepth(current.getDepth() + 1);
+                    side.countDepth(leaf.getDepth(), 1);
+                    side.frontier.decreaseKey(leaf);
+                }
+                else {
+                    duplicates++;
+                    continue;
+                }
+
+                //check whether the other side has reached the leaf
+                Node match = other.frontier.get(leafBoard);
+                if(match == null) match = other.explored.get(leafBoard);
+                if(match != null && leaf.getDepth() + match.getDepth() < bestCost) {
+                    bestCost = leaf.getDepth() + match.getDepth();
+                    meetForward = side == forward ? leaf : match;
+                    meetBackward = side == forward ? match : leaf;
+                }
+            }
+            metrics.leaves(generated, duplicates, 0);
+            metrics.expanded++;
+            metrics.peaks(forward.frontier.size() + backward.frontier.size(), forward.explored.size() + backward.explored.size());
+            side.stats.expansions++;
+            side.stats.nanos += System.nanoTime() - start;
+        }
+    }
+
+    //function to build a table of each tile's distance from its position in a target puzzle
+    public static int [][] distanceTable(long target, boolean manhattan) {
+        return distanceTable(target, manhattan, EIGHT_PUZZLE);
+    }
+
+    //function to build a table of each tile's distance from its position in a target puzzle of a given size
+    public static int [][] distanceTable(long target, boolean manhattan, BoardSize size) {
+        int w = size.width;
+        int [][] table = new int [size.cells][size.cells];
+        for(int t = 0; t < size.cells; t++) {
+            int tile = tileAt(target, t);
+            if(tile == 0) continue;
+            for(int pos = 0; pos < size.cells; pos++)
+                table[tile][pos] = manhattan ? Math.abs(pos%w - t%w) + Math.abs(pos/w - t/w) : (pos != t ? 1 : 0);
+        }
+        return table;
+    }
+
+    //bidirectional A* search
+    public static Node bidirectionalSearch(Node root, int x) {
+        return bidirectionalSearch(root, x, new DirectionStats(), new DirectionStats());
+    }
+
+    //bidirectional A* search, recording the search cost and time of each direction
+    //the forward side searches toward the solution with heuristic x, the backward side toward the initial
+    //state with misplaced tiles if x is 1 and manhattan distance otherwise
+    public static Node bidirectionalSearch(Node root, int x, DirectionStats forwardStats, DirectionStats backwardStats) {
+        return bidirectionalSearch(root, x, forwardStats, backwardStats, new SearchMetrics());
+    }
+
+    //bidirectional A* search, recording the counters of both directions together in the metrics
+    public static Node bidirectionalSearch(Node root, int x, DirectionStats forwardStats, DirectionStats backwardStats, SearchMetrics metrics) {
+        return bidirectionalSearch(root, x, forwardStats, backwardStats, Integer.MAX_VALUE, metrics);
+    }
+
+    //bidirectional A* search, giving up after a number of expansions of both directions together
+    public static Node bidirectionalSearch(Node root, int x, DirectionStats forwardStats, DirectionStats backwardStats, int limit, SearchMetrics metrics) {
+        BoardSize size = root.getSize();
+        metrics.begin(root, 5, x);
+        if(root.getBoard() == size.solution) {
+            root.setSearchCost(0);
+            return metrics.end(root);
+        }
+
+        //initialize both frontiers, each with its side's initial state
+        BidirectionalSearch.Side forward = new BidirectionalSearch.Side(x == 1 ? size.misplaced : x == 2 ? size.manhattan : null, x, size, forwardStats);
+        BidirectionalSearch.Side backward = new BidirectionalSearch.Side(distanceTable(root.getBoard(), x != 1, size), x, size, backwardStats);
+        BidirectionalSearch search = new BidirectionalSearch(forward, backward, metrics);
+        root.setHeuristic(forward.heuristic(root.getBoard()));
+        forward.add(root);
+        Node goal = new Node();
+        goal.setPuzzleConfig(unpackPuzzle(size.solution, size));
+        goal.setHeuristic(backward.heuristic(goal.getBoard()));
+        backward.add(goal);
+
+        //loop do
+        long searchCost = 0;
+        while(!forward.frontier.isEmpty() && !backward.frontier.isEmpty()) {
+            //a path met before the limit is not proven the cheapest, so it is dropped too
+            if(searchCost++ > limit) return metrics.end(null);
+
+            //stop once no path through either frontier can be cheaper than the best one found,
+            //a path joining both frontiers costs at least their lowest depths plus one move
+            int bound = Math.max(forward.frontier.peek().getCost(), backward.frontier.peek().getCost());
+            bound = Math.max(bound, forward.minDepth() + backward.minDepth() + 1);
+            if(search.bestCost <= bound) break;
+
+            //expand the smaller frontier
+            if(forward.frontier.size() <= backward.frontier.size())
+                search.expand(forward.remove(), forward, backward);
+            else
+                search.expand(backward.remove(), backward, forward);
+        }
+        if(search.meetForward == null) return metrics.end(null);
+
+        //splice the backward path from the meeting state onto the forward path
+        Node current = search.meetForward;
+        for(Node b = search.meetBackward.getParent(); b != null; b = b.getParent())
+            current = new Node(current, b.getBoard(), b.getBlank(), forward.heuristic(b.getBoard()));
+        current.setSearchCost((int) Math.min(forwardStats.getExpansions() + backwardStats.getExpansions(), Integer.MAX_VALUE));
+        return metrics.end(current);
+    }
+
+    //statistics of one IDA* iteration
+    public static class IterationStats {
+
+        //attributes
+        private final int threshold;
+        private final long expansions;
+        private final long nanos;
+
+        //constructor
+        IterationStats(int threshold, long expansions, long nanos) {
+            this.threshold = threshold;
+            this.expansions = expansions;
+            this.nanos = nanos;
+        }
+
+        //getters
+        public int getThreshold() { return this.threshold; }
+        public long getExpansions() { return this.expansions; }
+        public long getNanos() { return this.nanos; }
+    }
+
+    //IDA* search state, a single mutable board and the moves leading to it
+    private static class IDAStar {
+
+        //attributes
+        private final int x;
+        private final BoardSize size;
+        private long board;
+        private int blank;
+        private int [] path;
+        private long expansions;
+        private long generated;
+        private int nextThreshold;
+        private final boolean timed;
+        private long heuristicNanos;
+        private AtomicBoolean stop;
+
+        //constructor
+        IDAStar(long board, int blank, int x, BoardSize size, boolean timed) {
+            this.x = x;
+            this.size = size;
+            this.board = board;
+            this.blank = blank;
+            this.path = new int [64];
+            this.timed = timed;
+        }
+
+        //function to search below a node with cost g + h, returns true with the solution moves in path
+        boolean search(int g, int h, int threshold, int previousDirection) {
+            int f = g + h;
+            if(f > threshold) {
+                if(f < nextThreshold) nextThreshold = f;
+                return false;
+            }
+            if(board == size.solution) return true;
+            if(stop != null && stop.get()) return false;
+
+            //expand the node in place, never undoing the previous move
+            expansions++;
+            if(g == path.length) path = Arrays.copyOf(path, g << 1);
+            long parentBoard = board;
+            int parentBlank = blank;
+            int [] targets = size.neighbors[parentBlank];
+            for(int d = 0; d < 4; d++) {
+                int target = targets[d];
+                if(target < 0 || d == (previousDirection ^ 1)) continue;
+                board = moveBlank(parentBoard, parentBlank, target);
+                blank = target;
+                generated++;
+                long start = timed ? System.nanoTime() : 0;
+                int leafH = leafHeuristic(h, board, tileAt(parentBoard, target), target, parentBlank, x, size);
+                if(timed) heuristicNanos += System.nanoTime() - start;
+                path[g] = d;
+                if(search(g + 1, leafH, threshold, d)) return true;
+            }
+            board = parentBoard;
+            blank = parentBlank;
+            return false;
+        }
+    }
+
+    //IDA* search
+    public static Node idaStarSearch(Node root, int x) {
+        return idaStarSearch(root, x, null);
+    }
+
+    //IDA* search, recording statistics of every iteration if a list is given
+    public static Node idaStarSearch(Node root, int x, List<IterationStats> iterations) {
+        return idaStarSearch(root, x, iterations, new SearchMetrics());
+    }
+
+    //IDA* search, recording its counters in the metrics, the frontier peak is the longest path held
+    public static Node idaStarSearch(Node root, int x, List<IterationStats> iterations, SearchMetrics metrics) {
+
+        //evaluate the initial state and start with its cost as the threshold
+        metrics.begin(root, 4, x);
+        evaluateRoot(root, x, metrics);
+        IDAStar ida = new IDAStar(root.getBoard(), root.getBlank(), x, root.getSize(), metrics.timeHeuristics);
+        int threshold = root.getHeuristic();
+        long searchCost = 0;
+
+        //depth first search bounded by the threshold, raised to the lowest cost that exceeded it
+        while(true) {
+            long start = System.nanoTime();
+            ida.expansions = 0;
+            ida.nextThreshold = Integer.MAX_VALUE;
+            boolean found = ida.search(0, root.getHeuristic(), threshold, -1);
+            searchCost += ida.expansions;
+            if(iterations != null) iterations.add(new IterationStats(threshold, ida.expansions, System.nanoTime() - start));
+            if(found) break;
+            //if no cost exceeded the threshold then return failure
+            if(ida.nextThreshold == Integer.MAX_VALUE) {
+                idaMetrics(ida, searchCost, threshold, metrics);
+                return metrics.end(null);
+            }
+            threshold = ida.nextThreshold;
+        }
+        idaMetrics(ida, searchCost, threshold, metrics);
+
+        //replay the solution moves from the initial state to build the solution path
+        char [] moves = new char [threshold];
+        for(int i = 0; i < threshold; i++)
+            moves[i] = MOVE_LETTERS.charAt(ida.path[i]);
+        Node current = replaySolution(root, new String(moves), x);
+        current.setSearchCost((int) Math.min(searchCost, Integer.MAX_VALUE));
+        return metrics.end(current);
+    }
+
+    //function to copy the counters of an IDA* search into its metrics
+    //no path is longer than the last threshold since every move costs at least one
+    private static void idaMetrics(IDAStar ida, long expansions, int threshold, SearchMetrics metrics) {
+        metrics.expanded = expansions;
+        metrics.generated = ida.generated;
+        metrics.heuristicNanos += ida.heuristicNanos;
+        metrics.peaks(threshold, 0);
+    }
+
+    //shared state of one threshold of a parallel IDA* search
+    private static final class ParallelIDAStar {
+
+        //attributes
+        final int x;
+        final BoardSize size;
+        final boolean timed;
+        final int threshold;
+        final int splitDepth;
+        final AtomicBoolean stop = new AtomicBoolean();
+        final AtomicReference<int []> solution = new AtomicReference<int []>();
+        final LongAccumulator nextThreshold = new LongAccumulator(Math::min, Integer.MAX_VALUE);
+        final LongAdder expansions = new LongAdder();
+        final LongAdder generated = new LongAdder();
+        final LongAdder heuristicNanos = new LongAdder();
+
+        //constructor
+        ParallelIDAStar(int x, BoardSize size, boolean timed, int threshold, int splitDepth) {
+            this.x = x;
+            this.size = size;
+            this.timed = timed;
+            this.threshold = threshold;
+            this.splitDepth = splitDepth;
+        }
+    }
+
+    //subtree of a parallel IDA* search, split into a task per child down to the split depth and searched in place below it
+    private static final class IDASubtree extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        //attributes
+        private final ParallelIDAStar search;
+        private final long board;
+        private final int blank;
+        private final int g;
+        private final int h;
+        private final int [] moves;
+
+        //constructor
+        IDASubtree(ParallelIDAStar search, long board, int blank, int g, int h, int [] moves) {
+            this.search = search;
+            this.board = board;
+            this.blank = blank;
+            this.g = g;
+            this.h = h;
+            this.moves = moves;
+        }
+
+        @Override
+        protected void compute() {
+            if(search.stop.get()) return;
+            int f = g + h;
+            if(f > search.threshold) {
+                search.nextThreshold.accumulate(f);
+                return;
+            }
+            int previousDirection = g == 0 ? -1 : moves[g - 1];
+
+            //below the split depth search the subtree sequentially, stopping once any task found the solution
+            if(g >= search.splitDepth || board == search.size.solution) {
+                IDAStar ida = new IDAStar(board, blank, search.x, search.size, search.timed);
+                ida.stop = search.stop;
+                ida.path = Arrays.copyOf(moves, Math.max(64, g << 1));
+                ida.nextThreshold = Integer.MAX_VALUE;
+                boolean found = ida.search(g, h, search.threshold, previousDirection);
+                search.expansions.add(ida.expansions);
+                search.generated.add(ida.generated);
+                search.heuristicNanos.add(ida.heuristicNanos);
+                search.nextThreshold.accumulate(ida.nextThreshold);
+                if(found && search.stop.compareAndSet(false, true)) search.solution.set(ida.path);
+                return;
+            }
+
+            //above it fork a task per successor, idle workers steal the pending ones
+            search.expansions.increment();
+            int [] targets = search.size.neighbors[blank];
+            List<IDASubtree> children = new ArrayList<IDASubtree>(4);
+            for(int d = 0; d < 4; d++) {
+                int target = targets[d];
+                if(target < 0 || d == (previousDirection ^ 1)) continue;
+                long leafBoard = moveBlank(board, blank, target);
+                long start = search.timed ? System.nanoTime() : 0;
+                int leafH = leafHeuristic(h, leafBoard, tileAt(board, target), target, blank, search.x, search.size);
+                if(search.timed) search.heuristicNanos.add(System.nanoTime() - start);
+                search.generated.increment();
+                int [] leafMoves = Arrays.copyOf(moves, g + 1);
+                leafMoves[g] = d;
+                children.add(new IDASubtree(search, leafBoard, target, g + 1, leafH, leafMoves));
+            }
+            invokeAll(children);
+        }
+    }
+
+    //depth above which parallel IDA* search forks a task per node, enough tasks to keep the workers busy
+    private static int splitDepth(int parallelism) {
+        return 6 + 32 - Integer.numberOfLeadingZeros(Math.max(1, parallelism - 1));
+    }
+
+    //parallel IDA* search on the common pool
+    public static Node parallelIdaStarSearch(Node root, int x) {
+        return parallelIdaStarSearch(root, x, ForkJoinPool.commonPool());
+    }
+
+    //parallel IDA* search on a pool
+    public static Node parallelIdaStarSearch(Node root, int x, ForkJoinPool pool) {
+        return parallelIdaStarSearch(root, x, pool, new SearchMetrics());
+    }
+
+    //parallel IDA* search, every threshold is split into subtrees searched by the pool's workers
+    //a solution found under a threshold is optimal, since the previous threshold had none, so the first one stops all tasks
+    //without a pool nothing is split and every threshold is searched in the calling thread
+    public static Node parallelIdaStarSearch(Node root, int x, ForkJoinPool pool, SearchMetrics metrics) {
+
+        //evaluate the initial state and start with its cost as the threshold
+        metrics.begin(root, 7, x);
+        evaluateRoot(root, x, metrics);
+        int splitDepth = pool == null ? 0 : splitDepth(pool.getParallelism());
+        int threshold = root.getHeuristic();
+        long searchCost = 0;
+        long generated = 0;
+        long heuristicNanos = 0;
+        int [] path;
+
+        //search every threshold in parallel, raised to the lowest cost that exceeded it
+        while(true) {
+            ParallelIDAStar search = new ParallelIDAStar(x, root.getSize(), metrics.timeHeuristics, threshold, splitDepth);
+            IDASubtree task = new IDASubtree(search, root.getBoard(), root.getBlank(), 0, root.getHeuristic(), new int [0]);
+            if(pool == null) task.invoke();
+            else pool.invoke(task);
+            searchCost += search.expansions.sum();
+            generated += search.generated.sum();
+            heuristicNanos += search.heuristicNanos.sum();
+            path = search.solution.get();
+            if(path != null) break;
+            //if no cost exceeded the threshold then return failure
+            if(search.nextThreshold.get() == Integer.MAX_VALUE) break;
+            threshold = (int) search.nextThreshold.get();
+        }
+        metrics.expanded = searchCost;
+        metrics.generated = generated;
+        metrics.heuristicNanos += heuristicNanos;
+        metrics.peaks(threshold, 0);
+        if(path == null) return metrics.end(null);
+
+        //replay the solution moves from the initial state to build the solution path
+        char [] moves = new char [threshold];
+        for(int i = 0; i < threshold; i++)
+            moves[i] = MOVE_LETTERS.charAt(path[i]);
+        Node current = replaySolution(root, new String(moves), x);
+        current.setSearchCost((int) Math.min(searchCost, Integer.MAX_VALUE));
+        return metrics.end(current);
+    }
+
+    //function to print solution path
+    public static void printSolutionPath(Node n) {
+        Node current = n;
+        System.out.println("GOAL STATE");
+        while(current != null) {
+            int d = current.getDepth();
+            int h = current.getHeuristic();
+            int c = current.getCost();
+            printPuzzle(current.getPuzzleConfig());
+            System.out.println();
+            if(d != 0) {
+                System.out.println("depth: "+d);
+                System.out.println("heuristic: "+h);
+                System.out.println("cost: "+c);
+                System.out.println(" /\\");
+                System.out.println("/  \\");
+                System.out.println(" ||");
+                System.out.println(" ||");
+            }
+            current = current.parent;
+        }
+        System.out.println("INITIAL STATE");
+    }
+
+    //result of one puzzle of a batch
+    public static class BatchResult {
+
+        //attributes
+        private final long index;
+        private final int [] puzzle;
+        private final Node solution;
+        private final long nanos;
+        private final SearchMetrics metrics;
+        private final String error;
+
+        //constructor
+        BatchResult(long index, int [] puzzle, Node solution, long nanos, SearchMetrics metrics) {
+            this(index, puzzle, solution, nanos, metrics, null);
+        }
+
+        //constructor of a puzzle whose search failed with an error
+        BatchResult(long index, int [] puzzle, Node solution, long nanos, SearchMetrics metrics, String error) {
+            this.index = index;
+            this.puzzle = puzzle;
+            this.solution = solution;
+            this.nanos = nanos;
+            this.metrics = metrics;
+            this.error = error;
+        }
+
+        //getters
+        public long getIndex() { return this.index; }
+        public int [] getPuzzle() { return this.puzzle; }
+        public Node getSolution() { return this.solution; }
+        public long getNanos() { return this.nanos; }
+        //counters of the puzzle's search, null if the puzzle was not searched because it has no solution
+        public SearchMetrics getMetrics() { return this.metrics; }
+        //why the puzzle could not be searched, such as a heuristic that does not cover its size, null if it was
+        public String getError() { return this.error; }
+    }
+
+    //solver that spreads independent puzzles over a pool of threads and returns results in input order
+    public static class BatchSolver {
+
+        //attributes
+        private final int algorithm;
+        private final int heuristic;
+        private final int threads;
+        private final int maxInFlight;
+        private final int treeSearchLimit;
+
+        //approximate heap retained per tree search expansion, measured on 7,000,000 expansion runs
+        public static final int BYTES_PER_TREE_EXPANSION = 256;
+
+        //constructor using every core, bounding tree search to half of the heap
+        public BatchSolver(int algorithm, int heuristic) {
+            this(algorithm, heuristic, Runtime.getRuntime().availableProcessors(), 0, defaultNodeBudget(Runtime.getRuntime().availableProcessors()));
+        }
+
+        //function to get a node budget that keeps tree searches of all threads within half of the heap
+        public static int defaultNodeBudget(int threads) {
+            long heapNodes = Runtime.getRuntime().maxMemory() / 2 / BYTES_PER_TREE_EXPANSION;
+            return (int) Math.min(Math.min((long) TREE_SEARCH_LIMIT * threads, heapNodes), Integer.MAX_VALUE);
+        }
+
+        //constructor
+        //maxInFlight bounds the puzzles being solved or waiting to be returned, 0 means four per thread
+        //nodeBudget bounds the tree search expansions of all threads together
+        public BatchSolver(int algorithm, int heuristic, int threads, int maxInFlight, int nodeBudget) {
+            if(!isAlgorithm(algorithm) || !isHeuristic(heuristic) || threads < 1)
+                throw new IllegalArgumentException("Invalid batch configuration.");
+            this.algorithm = algorithm;
+            this.heuristic = heuristic;
+            this.threads = threads;
+            this.maxInFlight = maxInFlight > 0 ? Math.max(maxInFlight, threads) : threads * 4;
+            this.treeSearchLimit = Math.max(1, nodeBudget / threads);
+        }
+
+        //function to solve a list of puzzles
+        public List<BatchResult> solveAll(List<int []> puzzles) {
+            final List<BatchResult> results = new ArrayList<BatchResult>(puzzles.size());
+            solve(puzzles.iterator(), results::add);
+            return results;
+        }
+
+        //function to solve every puzzle in a file, one puzzle per line of any supported size
+        public void solveFile(String fileName, Consumer<BatchResult> sink) throws IOException {
+            try (BufferedReader reader = Files.newBufferedReader(Paths.get(fileName))) {
+                solve(reader, sink);
+            }
+        }
+
+        //function to solve every puzzle of a reader, one puzzle per line
+        //lines are read only as puzzles are taken up, so memory does not grow with the input
+        public void solve(BufferedReader reader, Consumer<BatchResult> sink) {
+            solve(reader, sink, null);
+        }
+
+        //function to solve every puzzle of a reader, running idle whenever the next result is not finished yet
+        public void solve(BufferedReader reader, Consumer<BatchResult> sink, Runnable idle) {
+            Iterator<int []> puzzles = reader.lines()
+                    .map(line -> line.trim().replaceAll("\\s+", " "))
+                    .filter(line -> !line.isEmpty())
+                    .map(line -> {
+                        if(!isValidPuzzle(line, BoardSize.widthOf(line.split(" ").length))) throw new IllegalArgumentException("Invalid puzzle: "+line);
+                        return parsePuzzle(line);
+                    })
+                    .iterator();
+            solve(puzzles, sink);
+        }
+
+        //function to solve a stream of puzzles, handing each result to the sink in input order
+        public void solve(Iterator<int []> puzzles, Consumer<BatchResult> sink) {
+            solve(puzzles, sink, null);
+        }
+
+        //function to solve a stream of puzzles, running idle whenever the next result is not finished yet
+        //puzzles are read on their own thread, so a finished result is handed to the sink without waiting for more input
+        public void solve(final Iterator<int []> puzzles, Consumer<BatchResult> sink, Runnable idle) {
+            prepare();
+            final ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+                Thread t = new Thread(r, "puzzle-batch");
+                t.setDaemon(true);
+                return t;
+            });
+            //each worker thread reuses one arena for all of its searches
+            //the workers already fill the cores, so parallel IDA* search runs in the worker instead of the common pool
+            final ThreadLocal<SearchArena> arenas = ThreadLocal.withInitial(() -> {
+                SearchArena arena = new SearchArena();
+                arena.setPool(null);
+                return arena;
+            });
+            final BlockingQueue<Future<BatchResult>> inFlight = new LinkedBlockingQueue<Future<BatchResult>>();
+            final Semaphore slots = new Semaphore(maxInFlight);
+            final Future<BatchResult> end = CompletableFuture.completedFuture(null);
+            final AtomicReference<RuntimeException> readFailure = new AtomicReference<RuntimeException>();
+            Thread reader = new Thread(() -> {
+                try {
+                    long index = 0;
+                    while(true) {
+                        //wait for a result to be handed over before reading more than the in flight bound
+                        slots.acquire();
+                        if(!puzzles.hasNext()) break;
+                        final int [] puzzle = puzzles.next();
+                        final long i = index++;
+                        inFlight.add(pool.submit(() -> {
+                            Node root = new Node();
+                            root.setPuzzleConfig(puzzle);
+                            long start = System.nanoTime();
+                            if(!isSolvable(puzzle)) return new BatchResult(i, puzzle, null, System.nanoTime() - start, null);
+                            SearchArena arena = arenas.get();
+                            //a failed search answers its own line, the other puzzles carry on
+                            try {
+                                Node sol = Puzzle.solve(root, algorithm, heuristic, arena, treeSearchLimit);
+                                return new BatchResult(i, puzzle, sol, System.nanoTime() - start, new SearchMetrics(arena.getMetrics()));
+                            }
+                            catch (IllegalArgumentException e) {
+                                return new BatchResult(i, puzzle, null, System.nanoTime() - start, null, e.getMessage());
+                            }
+                            catch (RuntimeException e) {
+                                arena.clear();
+                                return new BatchResult(i, puzzle, null, System.nanoTime() - start, null, e.toString());
+                            }
+                        }));
+                    }
+                }
+                catch (InterruptedException e) {
+                    //the results are no longer wanted
+                }
+                catch (RuntimeException e) {
+                    readFailure.set(e);
+                }
+                finally {
+                    inFlight.add(end);
+                }
+            }, "puzzle-batch-reader");
+            reader.setDaemon(true);
+            reader.start();
+            try {
+                while(true) {
+                    Future<BatchResult> next = inFlight.peek();
+                    if(idle != null && (next == null || !next.isDone())) idle.run();
+                    next = inFlight.take();
+                    if(next == end) break;
+                    BatchResult result = await(next);
+                    slots.release();
+                    sink.accept(result);
+                }
+                if(readFailure.get() != null) throw readFailure.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while solving batch.", e);
+            }
+            finally {
+                reader.interrupt();
+                for(Future<BatchResult> f : inFlight) f.cancel(true);
+                pool.shutdownNow();
+            }
+        }
+
+        //function to load the tables and classes the searches use before any search is timed
+        //a puzzle one move from the solution of each size is searched without publishing it
+        private void prepare() {
+            new SearchEvent();
+            SearchArena arena = new SearchArena();
+            arena.setPool(null);
+            for(int width = BoardSize.MIN_WIDTH; width <= BoardSize.MAX_WIDTH; width++) {
+                BoardSize size = BoardSize.of(width);
+                Node root = new Node();
+                root.setPuzzleConfig(unpackPuzzle(moveBlank(size.solution, 0, 1), size));
+                try {
+                    search(root, algorithm, heuristic, arena, treeSearchLimit);
+                }
+                catch (IllegalArgumentException e) {
+                    //this heuristic or algorithm does not cover the size, its puzzles are answered with the error
+                }
+            }
+        }
+
+        //function to wait for a result, rethrowing failures of the solving thread
+        private static BatchResult await(Future<BatchResult> future) {
+            try {
+                return future.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while solving batch.", e);
+            }
+            catch (ExecutionException e) {
+                throw new IllegalStateException("Batch solve failed.", e.getCause());
+            }
+        }
+    }
+
+    //function to test incremental heuristics against h1 and h2 on every reachable puzzle
+    public static boolean testHeuristics() {
+
+        //breadth first walk of every state reachable from the solution state
+        HashSet<Long> visited = new HashSet<Long>();
+        ArrayDeque<Long> queue = new ArrayDeque<Long>();
+        visited.add(SOLUTION_BOARD);
+        queue.add(SOLUTION_BOARD);
+        int mismatches = 0;
+        while(!queue.isEmpty()) {
+            long board = queue.remove();
+            int blank = blankIndex(board);
+            int [] config = unpackPuzzle(board);
+            int parentH1 = h1(config);
+            int parentH2 = h2(config);
+            if(parentH1 != h1(board) || parentH2 != h2(board)) mismatches++;
+
+            //compare every leaf's incremental heuristics with a full evaluation
+            for(int d = 0; d < 4; d++) {
+                int target = NEIGHBORS[blank][d];
+                if(target < 0) continue;
+                long leafBoard = moveBlank(board, blank, target);
+                int tile = tileAt(board, target);
+                int [] leafConfig = move(config, d);
+                if(leafHeuristic(parentH1, leafBoard, tile, target, blank, 1) != h1(leafConfig)) mismatches++;
+                if(leafHeuristic(parentH2, leafBoard, tile, target, blank, 2) != h2(leafConfig)) mismatches++;
+                if(visited.add(leafBoard)) queue.add(leafBoard);
+            }
+        }
+
+        System.out.println("states: "+visited.size()+" | mismatches: "+mismatches);
+        return visited.size() == 181440 && mismatches == 0;
+    }
+
+    //resident solver on a loopback HTTP port, tables are loaded and the searches warmed up once when it starts
+    //GET or POST /solve?algorithm=a&heuristic=h takes the puzzle parameter or a body of one puzzle per line and answers
+    //one line per puzzle like batch mode, GET /metrics answers request counts, throughput and latency percentiles
+    public static class SolverServer {
+
+        //most puzzles a worker takes from the queue at once
+        public static final int MAX_BATCH = 64;
+        public static final int WARMUP_PUZZLES = 200;
+        //longest a request waits for its puzzles before it is answered with 503
+        public static final long REQUEST_TIMEOUT_SECONDS = 60;
+
+        //puzzle waiting in the queue, its line of the answer is set before its request's latch is counted down
+        private static final class Job {
+
+            //attributes
+            final int [] puzzle;
+            final int algorithm;
+            final int heuristic;
+            final String [] answers;
+            final int index;
+            final CountDownLatch done;
+            final AtomicBoolean cancelled;
+            final long queued = System.nanoTime();
+
+            //constructor
+            Job(int [] puzzle, int algorithm, int heuristic, String [] answers, int index, CountDownLatch done, AtomicBoolean cancelled) {
+                this.puzzle = puzzle;
+                this.algorithm = algorithm;
+                this.heuristic = heuristic;
+                this.answers = answers;
+                this.index = index;
+                this.done = done;
+                this.cancelled = cancelled;
+            }
+        }
+
+        //attributes
+        private final HttpServer server;
+        private final ExecutorService handlers;
+        private final Thread [] workers;
+        private final LinkedBlockingQueue<Job> queue = new LinkedBlockingQueue<Job>();
+        private final int treeSearchLimit;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder puzzles = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+        private final LatencyHistogram requestLatency = new LatencyHistogram();
+        private final LatencyHistogram puzzleLatency = new LatencyHistogram();
+        private final long started = System.nanoTime();
+
+        //constructor, binds the port on the loopback address, 0 picks a free port
+        //every request is handled on a pool thread while the workers solve, one search arena per worker
+        public SolverServer(int port, int workers) throws IOException {
+            this.treeSearchLimit = Math.max(1, BatchSolver.defaultNodeBudget(workers) / workers);
+            //small responses wait for the delayed ack of the previous one unless Nagle is turned off
+            if(System.getProperty("sun.net.httpserver.nodelay") == null)
+                System.setProperty("sun.net.httpserver.nodelay", "true");
+            this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            this.handlers = Executors.newFixedThreadPool(Math.max(16, workers * 8));
+            this.server.setExecutor(handlers);
+            this.server.createContext("/solve", this::handleSolve);
+            this.server.createContext("/metrics", this::handleMetrics);
+            this.workers = new Thread [workers];
+            for(int i = 0; i < workers; i++) {
+                this.workers[i] = new Thread(this::work, "solver-"+i);
+                this.workers[i].setDaemon(true);
+            }
+        }
+
+        //function to load the tables, warm up the searches and start serving
+        public void start() {
+            warmUp();
+            for(Thread worker : workers)
+                worker.start();
+            server.start();
+        }
+
+        //function to stop serving, waiting up to a second for exchanges in progress
+        public void stop() {
+            server.stop(1);
+            handlers.shutdown();
+            for(Thread worker : workers)
+                worker.interrupt();
+        }
+
+        //function to get the bound port
+        public int getPort() {
+            return server.getAddress().getPort();
+        }
+
+        //function to load every table and compile the hot search paths before the first request
+        //the warm up searches call the algorithms directly so they are not published to the latency histograms
+        private static void warmUp() {
+            InstanceGenerator generator = new InstanceGenerator(EIGHT_PUZZLE, InstanceGenerator.DEFAULT_SEED);
+            SearchArena arena = new SearchArena();
+            for(int i = 0; i < WARMUP_PUZZLES; i++) {
+                for(int x = 1; x <= 6; x++) {
+                    Node root = new Node();
+                    root.setPuzzleConfig(generator.nextPuzzle());
+                    aStarGraphSearch(root, x, arena);
+                    //misplaced tiles is too weak for iterative deepening to be quick
+                    if(x > 1)
+                        idaStarSearch(root, x, null, arena.metrics);
+                }
+            }
+        }
+
+        //function of a worker, takes the waiting puzzles in batches and solves them with its own arena
+        //searches without a memory bound give up at the tree search limit, so one puzzle can not exhaust the heap
+        private void work() {
+            SearchArena arena = new SearchArena();
+            arena.setPool(null);
+            arena.setExpansionLimit(treeSearchLimit);
+            List<Job> batch = new ArrayList<Job>(MAX_BATCH);
+            try {
+                while(true) {
+                    batch.add(queue.take());
+                    //take only a share of the waiting puzzles, so a slow one does not hold up others an idle worker could solve
+                    int share = Math.min(MAX_BATCH - 1, queue.size() / workers.length);
+                    if(share > 0) queue.drainTo(batch, share);
+                    batches.increment();
+                    for(Job job : batch) {
+                        try {
+                            if(!job.cancelled.get()) job.answers[job.index] = answer(job, arena);
+                        }
+                        finally {
+                            puzzleLatency.record(System.nanoTime() - job.queued);
+                            job.done.countDown();
+                        }
+                    }
+                    batch.clear();
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        //function to solve a job's puzzle into its line of the answer, test# depth searchCost nanos moves
+        //a puzzle without a solution gives only its test#, one the options do not support gives an error
+        private String answer(Job job, SearchArena arena) {
+            StringBuilder line = new StringBuilder().append(job.index + 1);
+            if(!isSolvable(job.puzzle)) return line.toString();
+            try {
+                Node root = new Node();
+                root.setPuzzleConfig(job.puzzle);
+                Node sol = Puzzle.solve(root, job.algorithm, job.heuristic, arena, treeSearchLimit);
+                if(sol != null) {
+                    line.append(' ').append(sol.getDepth()).append(' ').append(sol.getSearchCost()).append(' ').append(arena.metrics.getWallNanos());
+                    if(sol.getDepth() > 0) line.append(' ').append(solutionMoves(sol));
+                }
+                return line.toString();
+            }
+            catch (IllegalArgumentException e) {
+                return line.append(" error: ").append(e.getMessage()).toString();
+            }
+            //a failed search answers its own line, the worker and the other puzzles carry on
+            //memory is bounded by the arena's expansion limit instead, an exhausted heap is not recovered from
+            catch (RuntimeException e) {
+                arena.clear();
+                return line.append(" error: ").append(e).toString();
+            }
+        }
+
+        //function to handle a solve request, queueing each of its puzzles and answering once all are solved
+        private void handleSolve(HttpExchange exchange) throws IOException {
+            long start = System.nanoTime();
+            try {
+                Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+                String a = query.getOrDefault("algorithm", "4");
+                String h = query.getOrDefault("heuristic", "2");
+                if(!isInt(a) || !isInt(h) || !isAlgorithm(Integer.parseInt(a)) || !isHeuristic(Integer.parseInt(h))) {
+                    respond(exchange, 400, "Invalid algorithm or heuristic.\n");
+                    return;
+                }
+                List<int []> puzzles = new ArrayList<int []>();
+                if(query.containsKey("puzzle")) {
+                    if(!addPuzzle(puzzles, query.get("puzzle"))) {
+                        respond(exchange, 400, "Invalid puzzle: "+query.get("puzzle")+"\n");
+                        return;
+                    }
+                }
+                else {
+                    BufferedReader reader = new BufferedReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.US_ASCII));
+                    String line;
+                    while((line = reader.readLine()) != null) {
+                        if(line.trim().isEmpty()) continue;
+                        if(!addPuzzle(puzzles, line)) {
+                            respond(exchange, 400, "Invalid puzzle: "+line+"\n");
+                            return;
+                        }
+                    }
+                }
+
+                //queue the puzzles and wait for the workers, puzzles of a request that timed out are skipped
+                String [] answers = new String [puzzles.size()];
+                CountDownLatch done = new CountDownLatch(puzzles.size());
+                AtomicBoolean cancelled = new AtomicBoolean();
+                for(int i = 0; i < puzzles.size(); i++)
+                    queue.add(new Job(puzzles.get(i), Integer.parseInt(a), Integer.parseInt(h), answers, i, done, cancelled));
+                if(!done.await(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    cancelled.set(true);
+                    respond(exchange, 503, "Timed out after "+REQUEST_TIMEOUT_SECONDS+" s.\n");
+                    return;
+                }
+                StringBuilder body = new StringBuilder();
+                for(String answer : answers)
+                    body.append(answer).append('\n');
+                respond(exchange, 200, body.toString());
+                requests.increment();
+                this.puzzles.add(puzzles.size());
+                requestLatency.record(System.nanoTime() - start);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                respond(exchange, 503, "Server stopping.\n");
+            }
+        }
+
+        //function to add a puzzle of a line of tiles separated by spaces, false if it is not a valid puzzle
+        private static boolean addPuzzle(List<int []> puzzles, String line) {
+            line = line.trim().replaceAll("\\s+", " ");
+            if(!isValidPuzzle(line, BoardSize.widthOf(line.split(" ").length))) return false;
+            puzzles.add(parsePuzzle(line));
+            return true;
+        }
+
+        //function to handle a metrics request
+        private void handleMetrics(HttpExchange exchange) throws IOException {
+            double seconds = (System.nanoTime() - started) / 1e9;
+            StringBuilder body = new StringBuilder();
+            body.append("Uptime(s): ").append(seconds).append(" | Requests: ").append(requests.sum())
+                    .append(" | Puzzles: ").append(puzzles.sum()).append(" | Batches: ").append(batches.sum())
+                    .append(" | Throughput(puzzles/s): ").append(puzzles.sum() / seconds).append(" | Queued: ").append(queue.size()).append('\n');
+            body.append("Request Latency | ").append(requestLatency.summary()).append('\n');
+            body.append("Puzzle Latency | ").append(puzzleLatency.summary()).append('\n');
+            for(Map.Entry<Integer, LatencyHistogram> e : new TreeMap<Integer, LatencyHistogram>(latencyHistograms).entrySet())
+                body.append("Search Latency | Algorithm: ").append(e.getKey() / 16).append(" | Heuristic: ").append(e.getKey() % 16)
+                        .append(" | ").append(e.getValue().summary()).append('\n');
+            respond(exchange, 200, body.toString());
+        }
+
+        //function to split a raw query into decoded parameters
+        private static Map<String, String> query(String rawQuery) {
+            Map<String, String> parameters = new HashMap<String, String>();
+            if(rawQuery == null) return parameters;
+            for(String pair : rawQuery.split("&")) {
+                int split = pair.indexOf('=');
+                if(split <= 0) continue;
+                parameters.put(URLDecoder.decode(pair.substring(0, split), StandardCharsets.UTF_8), URLDecoder.decode(pair.substring(split + 1), StandardCharsets.UTF_8));
+            }
+            return parameters;
+        }
+
+        //function to send a plain text answer
+        private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+            byte [] bytes = body.getBytes(StandardCharsets.US_ASCII);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=us-ascii");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    //binary log of search results, a header then one fixed width record per test
+    //header: magic, algorithm, heuristic, width, jvm name length, seed, jvm name as ASCII
+    //record: test#, solution depth or -1 if not solved, search cost, runtime in nanoseconds
+    public static class ResultLog implements Closeable {
+
+        private static final int MAGIC = 0x50524C31;
+        private static final int HEADER_BYTES = 16;
+        public static final int RECORD_BYTES = 24;
+
+        //attributes
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+
+        //constructor, replaces the file and writes its header
+        public ResultLog(String fileName, int algorithm, int heuristic, int width, long seed) throws IOException {
+            this(fileName, algorithm, heuristic, width, seed, System.getProperty("java.vm.name")+" "+System.getProperty("java.version"));
+        }
+
+        public ResultLog(String fileName, int algorithm, int heuristic, int width, long seed, String jvm) throws IOException {
+            byte [] name = jvm.getBytes(StandardCharsets.US_ASCII);
+            if(name.length > 255) name = Arrays.copyOf(name, 255);
+            this.channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            buffer.putInt(MAGIC).put((byte) algorithm).put((byte) heuristic).put((byte) width).put((byte) name.length).putLong(seed).put(name);
+        }
+
+        //function to add the result of a test, a null solution was not solved
+        public void append(int test, Node solution, long nanos) throws IOException {
+            if(solution != null) append(test, solution.getDepth(), solution.getSearchCost(), nanos);
+            else append(test, -1, 0, nanos);
+        }
+
+        //function to add a record, written out whenever the buffer fills
+        public void append(int test, int depth, long searchCost, long nanos) throws IOException {
+            if(buffer.remaining() < RECORD_BYTES) flush();
+            buffer.putInt(test).putInt(depth).putLong(searchCost).putLong(nanos);
+        }
+
+        //function to write the buffered records
+        public void flush() throws IOException {
+            buffer.flip();
+            while(buffer.hasRemaining())
+                channel.write(buffer);
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            }
+            finally {
+                channel.close();
+            }
+        }
+
+        //function to import a text data file, one test# depth searchCost runtime line per test with the runtime in
+        //milliseconds, or only the test# if not solved, the algorithm and heuristic are taken from the file name
+        public static int importText(String textFile, String logFile) throws IOException {
+            String name = Paths.get(textFile).getFileName().toString();
+            int algorithm = name.contains("Graph") || name.startsWith("ASGS") ? 2 : name.contains("Tree") || name.startsWith("ASTS") ? 1 : 0;
+            int h = name.indexOf('H');
+            while(h >= 0 && (h + 1 >= name.length() || !Character.isDigit(name.charAt(h + 1))))
+                h = name.indexOf('H', h + 1);
+            int heuristic = h < 0 ? 0 : Character.getNumericValue(name.charAt(h + 1));
+            int records = 0;
+            try (BufferedReader reader = Files.newBufferedReader(Paths.get(textFile), StandardCharsets.US_ASCII);
+                 ResultLog log = new ResultLog(logFile, algorithm, heuristic, 3, 0, "imported from "+name)) {
+                String line;
+                while((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if(line.isEmpty()) continue;
+                    String [] fields = line.split("\\s+");
+                    if(fields.length != 1 && fields.length != 4) throw new IllegalArgumentException("Invalid result line: "+line);
+                    if(fields.length == 1) log.append(Integer.parseInt(fields[0]), -1, 0, 0);
+                    else log.append(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]), Long.parseLong(fields[2]), Long.parseLong(fields[3]) * 1000000);
+                    records++;
+                }
+            }
+            return records;
+        }
+
+        //function to map a result log for reading
+        public static Results read(String fileName) throws IOException {
+            try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+                return new Results(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+
+        //results of a log read through a memory-mapped buffer
+        public static class Results {
+
+            //attributes
+            private final ByteBuffer buffer;
+            private final int algorithm;
+            private final int heuristic;
+            private final int width;
+            private final long seed;
+            private final String jvm;
+            private final int start;
+            private final int size;
+
+            //constructor
+            Results(ByteBuffer buffer) throws IOException {
+                if(buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) throw new IOException("Not a result log");
+                this.buffer = buffer;
+                this.algorithm = buffer.get(4);
+                this.heuristic = buffer.get(5);
+                this.width = buffer.get(6);
+                int nameLength = buffer.get(7) & 0xFF;
+                if(buffer.capacity() < HEADER_BYTES + nameLength) throw new IOException("Not a result log");
+                this.seed = buffer.getLong(8);
+                byte [] name = new byte [nameLength];
+                for(int i = 0; i < nameLength; i++)
+                    name[i] = buffer.get(HEADER_BYTES + i);
+                this.jvm = new String(name, StandardCharsets.US_ASCII);
+                this.start = HEADER_BYTES + nameLength;
+                this.size = (buffer.capacity() - start) / RECORD_BYTES;
+            }
+
+            //getters
+            public int getAlgorithm() { return this.algorithm; }
+            public int getHeuristic() { return this.heuristic; }
+            public int getWidth() { return this.width; }
+            public long getSeed() { return this.seed; }
+            public String getJvm() { return this.jvm; }
+            public int size() { return this.size; }
+
+            //getters of the fields of the record at an index
+            public int test(int i) { return buffer.getInt(start + i * RECORD_BYTES); }
+            public int depth(int i) { return buffer.getInt(start + i * RECORD_BYTES + 4); }
+            public long searchCost(int i) { return buffer.getLong(start + i * RECORD_BYTES + 8); }
+            public long nanos(int i) { return buffer.getLong(start + i * RECORD_BYTES + 16); }
+
+            //function to get the sorted search costs, or runtimes, of the solved tests at each depth
+            public SortedMap<Integer, long []> byDepth(boolean runtime) {
+                int [] counts = new int [256];
+                for(int i = 0; i < size; i++)
+                    if(depth(i) >= 0) counts[Math.min(depth(i), 255)]++;
+                SortedMap<Integer, long []> values = new TreeMap<Integer, long []>();
+                for(int depth = 0; depth < counts.length; depth++)
+                    if(counts[depth] > 0) values.put(depth, new long [counts[depth]]);
+                Arrays.fill(counts, 0);
+                for(int i = 0; i < size; i++) {
+                    int depth = Math.min(depth(i), 255);
+                    if(depth >= 0) values.get(depth)[counts[depth]++] = runtime ? nanos(i) : searchCost(i);
+                }
+                for(long [] v : values.values())
+                    Arrays.sort(v);
+                return values;
+            }
+
+            //function to get a percentile of sorted values by the nearest rank
+            public static long percentile(long [] sorted, double percentile) {
+                int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+                return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+            }
+
+            //function to print the header and the search cost and runtime percentiles of each depth
+            public void printSummary() {
+                int unsolved = 0;
+                for(int i = 0; i < size; i++)
+                    if(depth(i) < 0) unsolved++;
+                System.out.println("Algorithm: "+algorithm+" | Heuristic: "+heuristic+" | Width: "+width+" | Seed: "+seed+" | JVM: "+jvm);
+                System.out.println("Tests: "+size+" | Not Solved: "+unsolved);
+                System.out.println(String.format("%-6s %8s %10s %10s %10s %12s %12s %12s",
+                        "Depth", "Count", "Cost p50", "Cost p90", "Cost p99", "p50(ms)", "p90(ms)", "p99(ms)"));
+                SortedMap<Integer, long []> costs = byDepth(false);
+                SortedMap<Integer, long []> runtimes = byDepth(true);
+                for(Map.Entry<Integer, long []> e : costs.entrySet()) {
+                    long [] c = e.getValue();
+                    long [] r = runtimes.get(e.getKey());
+                    System.out.println(String.format("%-6d %8d %10d %10d %10d %12.3f %12.3f %12.3f", e.getKey(), c.length,
+                            percentile(c, 50), percentile(c, 90), percentile(c, 99),
+                            percentile(r, 50) / 1e6, percentile(r, 90) / 1e6, percentile(r, 99) / 1e6));
+                }
+            }
+        }
+    }
+
+    //function to test IDA* and write the statistics of every iteration
+    //format: test# threshold expansions nanos
+    public static void testIDAStar(int tests, int x) throws FileNotFoundException, UnsupportedEncodingException {
+        PrintWriter writer = new PrintWriter("IDASH"+x+"Data.txt", "UTF-8");
+        InstanceGenerator generator = new InstanceGenerator(EIGHT_PUZZLE, InstanceGenerator.DEFAULT_SEED);
+        for(int i = 0; i < tests; i++) {
+
+            //generate a solvable problem
+            Node root = new Node();
+            root.setPuzzleConfig(generator.nextPuzzle());
+
+            List<IterationStats> iterations = new ArrayList<IterationStats>();
+            Node sol = idaStarSearch(root, x, iterations);
+            for(IterationStats it : iterations)
+                writer.println((i+1)+" "+it.getThreshold()+" "+it.getExpansions()+" "+it.getNanos());
+            System.out.println("test: "+(i+1)+" | depth: "+(sol != null ? sol.getDepth() : -1)+" | iterations: "+iterations.size());
+        }
+        writer.close();
+    }
+
+    //function to test and print algorithms performance
+    public static void testAlgorithms () throws IOException {
+
+        //result logs
+        InstanceGenerator generator = new InstanceGenerator(EIGHT_PUZZLE, InstanceGenerator.DEFAULT_SEED);
+        ResultLog log1 = new ResultLog("ASGSH1Data.bin", 2, 1, 3, InstanceGenerator.DEFAULT_SEED);
+        ResultLog log2 = new ResultLog("ASGSH2Data.bin", 2, 2, 3, InstanceGenerator.DEFAULT_SEED);
+        ResultLog log3 = new ResultLog("ASTSH1Data.bin", 1, 1, 3, InstanceGenerator.DEFAULT_SEED);
+        ResultLog log4 = new ResultLog("ASTSH2Data.bin", 1, 2, 3, InstanceGenerator.DEFAULT_SEED);
+
+        long start = System.currentTimeMillis();
+        //for each algorithm with each heuristic log depth, search cost, execution time
+        int tests = 1000;
+        for(int i = 0; i < tests; i++) {
+
+            //generate a solvable problem
+            Node root = new Node();
+            root.setPuzzleConfig(generator.nextPuzzle());
+
+            //generate solution with each algorithm and heuristic
+            //time run time for each algorithm
+            long start1 = System.nanoTime();
+            Node sol1 = aStarGraphSearch(root,1);
+            long end1 = System.nanoTime();
+
+            long start2 = System.nanoTime();
+            Node sol2 = aStarGraphSearch(root,2);
+            long end2 = System.nanoTime();
+
+            long start3 = System.nanoTime();
+            Node sol3 = aStarTreeSearch(root,1);
+            long end3 = System.nanoTime();
+
+            long start4 = System.nanoTime();
+            Node sol4 = aStarTreeSearch(root,2);
+            long end4 = System.nanoTime();
+
+            //log solution data, tree search without a solution within 7,000,000 nodes is logged as not solved
+            log1.append(i+1, sol1, end1 - start1);
+            log2.append(i+1, sol2, end2 - start2);
+            log3.append(i+1, sol3, end3 - start3);
+            log4.append(i+1, sol4, end4 - start4);
+
+            //print current test# and program runtime
+            System.out.println("test: "+(i+1)+" | program runtime: "+((((double)System.currentTimeMillis()/1000)/60) - (((double)start/1000)/60)));
+        }
+        log1.close();
+        log2.close();
+        log3.close();
+        log4.close();
+    }
+
+    //function to check that an algorithm option exists
+    public static boolean isAlgorithm(int a) {
+        return a >= 1 && a <= 10;
+    }
+
+    //function to solve a puzzle with a chosen algorithm and heuristic
+    //SMA* search keeps as many nodes as fit in half of the heap, external A* search sorts as many states as fit in a quarter
+    public static Node solve(Node root, int a, int h) {
+        long maxMemory = Runtime.getRuntime().maxMemory();
+        Node sol = solve(root, a, h, new SearchArena(), a == 6 ? smaNodeBudget(maxMemory / 2) : a == 10 ? externalRunRecords(maxMemory / 4) : TREE_SEARCH_LIMIT);
+        if(sol == null && a == 1 && isHeuristic(h)) {
+            System.out.println("Not enough memory to reach solution.");
+            System.out.println("search cost > 7,000,000 nodes");
+        }
+        return sol;
+    }
+
+    //function to solve a puzzle with a chosen algorithm and heuristic using an arena's storage
+    //the node budget limits tree search expansions, the nodes SMA* search keeps and the states external A* search sorts at once
+    //the search's counters are left in the arena's metrics and published to the histograms, listeners and flight recorder
+    public static Node solve(Node root, int a, int h, SearchArena arena, int nodeBudget) {
+        if(!isAlgorithm(a) || !isHeuristic(h)) return null;
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        Node sol = search(root, a, h, arena, nodeBudget);
+        event.end();
+        publishSearch(arena.metrics, sol, event);
+        return sol;
+    }
+
+    //function to run a chosen algorithm and heuristic without publishing the search, null for an unknown algorithm
+    static Node search(Node root, int a, int h, SearchArena arena, int nodeBudget) {
+        Node sol;
+        switch (a) {
+            case 1:
+                sol = aStarTreeSearch(root,h,arena,nodeBudget);
+                break;
+            case 2:
+                sol = aStarGraphSearch(root,h,arena,arena.expansionLimit);
+                break;
+            case 3:
+                sol = DistanceTable.search(root, arena.metrics);
+                break;
+            case 4:
+                sol = idaStarSearch(root,h,null,arena.metrics);
+                break;
+            case 5:
+                sol = bidirectionalSearch(root,h,new DirectionStats(),new DirectionStats(),arena.expansionLimit,arena.metrics);
+                break;
+            case 6:
+                sol = smaStarSearch(root,h,nodeBudget,arena.metrics);
+                break;
+            case 7:
+                sol = parallelIdaStarSearch(root,h,arena.pool,arena.metrics);
+                break;
+            case 8:
+                sol = weightedAStarSearch(root,h,WEIGHT,arena.expansionLimit,arena.metrics);
+                break;
+            case 9:
+                sol = araStarSearch(root,h,WEIGHT,ARA_WEIGHT_STEP,ARA_DEADLINE_NANOS,arena.expansionLimit,null,arena.metrics);
+                break;
+            case 10:
+                sol = externalAStarSearch(root,h,Paths.get(EXTERNAL_DIRECTORY),nodeBudget,arena.metrics);
+                break;
+            default:
+                return null;
+        }
+        return sol;
+    }
+
+    //bounded cache of solutions in front of the solvers, least recently used entries are evicted first
+    //a puzzle and its reflection across the main diagonal share one entry since the solution state is symmetric,
+    //moves of the reflected puzzle are the cached moves with left and up, and right and down, swapped
+    public static class SolutionCache {
+
+        public static final String FILE_NAME = "solutionCache.bin";
+        public static final int DEFAULT_ENTRIES = 100000;
+        private static final int MAGIC = 0x50534331;
+
+        //key of a cached solution, the canonical puzzle of a reflection pair with its size, algorithm and heuristic
+        private static final class Key {
+            final long board;
+            final byte width;
+            final byte algorithm;
+            final byte heuristic;
+
+            Key(long board, int width, int algorithm, int heuristic) {
+                this.board = board;
+                this.width = (byte) width;
+                this.algorithm = (byte) algorithm;
+                this.heuristic = (byte) heuristic;
             }
-            else {
-                this.parent = null;
-                this.puzzleConfig = null;
-                this.heuristic = 0;
-                this.depth = 0;
-                this.cost = 0;
-                this.searchCost = 0;
+
+            @Override
+            public boolean equals(Object o) {
+                if (this == o) return true;
+                if (!(o instanceof Key)) return false;
+                Key key = (Key) o;
+                return board == key.board && width == key.width && algorithm == key.algorithm && heuristic == key.heuristic;
             }
 
+            @Override
+            public int hashCode() {
+                return Long.hashCode((board * 0x9E3779B97F4A7C15L) ^ (width << 16 | algorithm << 8 | heuristic));
+            }
         }
 
+        //cached moves of the canonical puzzle and the search cost of the search that found them
+        private static final class Entry {
+            final String moves;
+            final int searchCost;
 
-        //setters
-        public void setParent(Node parent) { this.parent = parent; }
-        public void setPuzzleConfig(int [] puzzleConfig) {
-            this.puzzleConfig = Arrays.copyOf(puzzleConfig, puzzleConfig.length);
-
-        }
-        public void setHeuristic(int heuristic) {
-            this.heuristic = heuristic;
-            this.cost = this.heuristic + this.depth;
+            Entry(String moves, int searchCost) {
+                this.moves = moves;
+                this.searchCost = searchCost;
+            }
         }
-        public void setDepth(int depth) {
-            this.depth = depth;
-            this.cost = this.heuristic + this.depth;
+
+        //attributes
+        private final int maxEntries;
+        private final LinkedHashMap<Key, Entry> entries;
+        private long hits;
+        private long misses;
+        private long evictions;
+
+        //constructor
+        public SolutionCache(int maxEntries) {
+            if(maxEntries < 1) throw new IllegalArgumentException("Cache needs room for an entry.");
+            this.maxEntries = maxEntries;
+            this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                    if(size() <= SolutionCache.this.maxEntries) return false;
+                    evictions++;
+                    return true;
+                }
+            };
         }
-        public void setSearchCost(int searchCost) { this.searchCost = searchCost; }
 
         //getters
-        public int [] getPuzzleConfig() { return this.puzzleConfig; }
-        public int getCost() { return this.cost; }
-        public int getDepth() { return this.depth; }
-        public int getHeuristic() { return this.heuristic; }
-        public int getSearchCost() { return this.searchCost; }
-        public Node getParent() { return this.parent; }
+        public synchronized int size() { return entries.size(); }
+        public synchronized long getHits() { return this.hits; }
+        public synchronized long getMisses() { return this.misses; }
+        public synchronized long getEvictions() { return this.evictions; }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            Node node = (Node) o;
-            return Arrays.equals(puzzleConfig, node.puzzleConfig);
+        //function to reflect a packed puzzle across its main diagonal, tile t moves to where the solution state keeps its reflection
+        public static long transpose(long board, BoardSize size) {
+            int w = size.width;
+            long transposed = 0;
+            for(int pos = 0; pos < size.cells; pos++) {
+                int tile = tileAt(board, pos);
+                transposed |= ((long) ((tile % w) * w + tile / w)) << (((pos % w) * w + pos / w) << 2);
+            }
+            return transposed;
         }
 
-        @Override
-        public int hashCode() {
-            return Arrays.hashCode(puzzleConfig);
+        //function to swap left with up and right with down in a string of moves
+        public static String transposeMoves(String moves) {
+            char [] transposed = new char [moves.length()];
+            for(int i = 0; i < transposed.length; i++)
+                transposed[i] = MOVE_LETTERS.charAt(MOVE_LETTERS.indexOf(moves.charAt(i)) ^ 2);
+            return new String(transposed);
         }
-    }
 
-    //function to configure blank space moving left
-    public static int [] moveLeft(int [] configuration) {
-        String configStr = Arrays.toString(configuration).replace("[","").replace("]","").replace(" ","").replace(",","");
-        int positionOfBlank = configStr.indexOf('0');
-        int [] newConfig = Arrays.copyOf(configuration,configuration.length);
-        if(positionOfBlank%3 != 0) {
-            newConfig[positionOfBlank] = newConfig[positionOfBlank-1];
-            newConfig[positionOfBlank-1] = 0;
+        //function to get a cached solution of a puzzle, replayed from the root, null on a miss
+        //the solution keeps the search cost of the search that found it
+        public synchronized Node get(Node root, int a, int h) {
+            BoardSize size = root.getSize();
+            long board = root.getBoard();
+            long transposed = transpose(board, size);
+            Entry entry = entries.get(new Key(Math.min(board, transposed), size.width, a, h));
+            if(entry == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+            Node sol = replaySolution(root, transposed < board ? transposeMoves(entry.moves) : entry.moves, h);
+            sol.setSearchCost(entry.searchCost);
+            return sol;
         }
-        else
-            newConfig = null;
-        return newConfig;
-    }
 
-    //function to configure blank space moving right
-    public static int [] moveRight(int [] configuration) {
-        String configStr = Arrays.toString(configuration).replace("[","").replace("]","").replace(" ","").replace(",","");
-        int positionOfBlank = configStr.indexOf('0');
-        int [] newConfig = Arrays.copyOf(configuration,configuration.length);
-        if(positionOfBlank%3 != 2) {
-            newConfig[positionOfBlank] = newConfig[positionOfBlank+1];
-            newConfig[positionOfBlank+1] = 0;;
+        //function to cache a puzzle's solution, failed searches are not cached
+        public synchronized void put(Node root, int a, int h, Node solution) {
+            if(solution == null) return;
+            BoardSize size = root.getSize();
+            long board = root.getBoard();
+            long transposed = transpose(board, size);
+            String moves = solutionMoves(solution);
+            entries.put(new Key(Math.min(board, transposed), size.width, a, h),
+                    new Entry(transposed < board ? transposeMoves(moves) : moves, solution.getSearchCost()));
         }
-        else
-            newConfig = null;
-        return newConfig;
-    }
 
-    //function to configure blank space moving up
-    public static int [] moveUp(int [] configuration) {
-        String configStr = Arrays.toString(configuration).replace("[","").replace("]","").replace(" ","").replace(",","");
-        int positionOfBlank = configStr.indexOf('0');
-        int [] newConfig = Arrays.copyOf(configuration,configuration.length);
-        if(positionOfBlank > 2) {
-            newConfig[positionOfBlank] = newConfig[positionOfBlank-3];
-            newConfig[positionOfBlank-3] = 0;
+        //function to solve a puzzle through the cache
+        public Node solve(Node root, int a, int h) {
+            Node sol = get(root, a, h);
+            if(sol == null) {
+                sol = Puzzle.solve(root, a, h);
+                put(root, a, h, sol);
+            }
+            return sol;
         }
-        else
-            newConfig = null;
-        return newConfig;
-    }
 
-    //function to configure blank space moving down
-    public static int [] moveDown(int [] configuration) {
-        String configStr = Arrays.toString(configuration).replace("[","").replace("]","").replace(" ","").replace(",","");
-        int positionOfBlank = configStr.indexOf('0');
-        int [] newConfig = Arrays.copyOf(configuration,configuration.length);
-        if(positionOfBlank < 6) {
-            newConfig[positionOfBlank] = newConfig[positionOfBlank+3];
-            newConfig[positionOfBlank+3] = 0;
+        //function to write every entry to a file, least recently used first so loading keeps the order
+        public synchronized void save(String fileName) throws IOException {
+            Path path = Paths.get(fileName);
+            Path temp = Paths.get(fileName + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(entries.size());
+                for(Map.Entry<Key, Entry> e : entries.entrySet()) {
+                    out.writeLong(e.getKey().board);
+                    out.writeByte(e.getKey().width);
+                    out.writeByte(e.getKey().algorithm);
+                    out.writeByte(e.getKey().heuristic);
+                    out.writeInt(e.getValue().searchCost);
+                    out.writeUTF(e.getValue().moves);
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
         }
-        else
-            newConfig = null;
-        return newConfig;
-    }
 
-    //function that adds leaf nodes of a given parent node to the frontier
-    public static void makeLeaves(Node parentNode, PriorityQueue<Node> frontier, int x) {
-
-        //get puzzle config
-        int [] configuration = parentNode.getPuzzleConfig();
-
-        //for every action, make a node
-        int [][] leafConfigs = new int [4][configuration.length];
-        leafConfigs[0] = moveLeft(configuration); //left move configuration
-        leafConfigs[1] = moveRight(configuration); //right move configuration
-        leafConfigs[2] = moveUp(configuration); //up move configuration
-        leafConfigs[3] = moveDown(configuration); //down move configuration
-
-        //if node is not null add nodes to frontier
-        for(int i = 0; i < leafConfigs.length; i++)
-            if(leafConfigs[i] != null) {
-                Node leaf = new Node(parentNode, leafConfigs[i], heuristicX(leafConfigs[i], x));
-                frontier.add(leaf);
+        //function to add the entries of a file written by save, a missing file leaves the cache as it is
+        public synchronized void load(String fileName) throws IOException {
+            Path path = Paths.get(fileName);
+            if(!Files.exists(path)) return;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                if(in.readInt() != MAGIC) throw new IOException("Not a solution cache file: "+fileName);
+                int count = in.readInt();
+                for(int i = 0; i < count; i++) {
+                    Key key = new Key(in.readLong(), in.readByte(), in.readByte(), in.readByte());
+                    int searchCost = in.readInt();
+                    entries.put(key, new Entry(in.readUTF(), searchCost));
+                }
             }
+        }
     }
 
-    //overloaded function that adds leaf nodes to the frontier
-    public static void makeLeaves(Node parentNode, PriorityQueue<Node> frontier, HashSet<Node> explored, int x) {
-
-        //get puzzle config
-        int [] configuration = parentNode.getPuzzleConfig();
-
-        //for every action, make a node
-        int [][] leafConfigs = new int [4][configuration.length];
-        leafConfigs[0] = moveLeft(configuration); //left move configuration
-        leafConfigs[1] = moveRight(configuration); //right move configuration
-        leafConfigs[2] = moveUp(configuration); //up move configuration
-        leafConfigs[3] = moveDown(configuration); //down move configuration
-
-        //if node is not null add nodes to frontier
-        for(int i = 0; i < leafConfigs.length; i++)
-            if(leafConfigs[i] != null) {
-                Node leaf = new Node(parentNode, leafConfigs[i], heuristicX(leafConfigs[i], x));
-                if(!frontier.contains(leaf) && !explored.contains(leaf))
-                    frontier.add(leaf);
-            }
+    //solution cache of the interactive solver, loaded from its file on first use
+    private static SolutionCache solutionCache;
 
+    //function to get the interactive solver's cache
+    public static synchronized SolutionCache solutionCache() {
+        if(solutionCache == null) {
+            solutionCache = new SolutionCache(SolutionCache.DEFAULT_ENTRIES);
+            try {
+                solutionCache.load(SolutionCache.FILE_NAME);
+            }
+            catch (IOException e) {
+                //start with an empty cache if the file can not be read
+                solutionCache = new SolutionCache(SolutionCache.DEFAULT_ENTRIES);
+            }
+        }
+        return solutionCache;
     }
 
-    //custom comparator for the node class, compares by cost
-    public static final Comparator<Node> nodeComparator = new Comparator<Node>() {
-        @Override
-        public int compare(Node n1, Node n2) {
-            return n1.getCost() - n2.getCost();
+    //microbenchmarks of the heuristics, successor functions and searches with warmup and allocation measurement
+    public static class Benchmark {
+
+        //work measured by a benchmark, one call is one operation
+        public interface Workload {
+            long run(int i);
         }
-    };
 
-    //A* tree search
-    public static Node aStarTreeSearch(Node root, int x) {
+        //attributes
+        public static final long SEED = 8;
+        public static final int [] DEPTHS = {8, 16, 20, 24, 28};
+        public static final int PUZZLES_PER_DEPTH = 20;
+        public static final int [] WALK_LENGTHS = {20, 30, 40};
+        public static final int PARALLEL_WALK_LENGTH = 60;
+        public static final double [] WEIGHTS = {1.0, 1.25, 1.5, 2.0, 3.0, 5.0};
 
-        //initialize solution config
-        int [] solutionConfig = {0,1,2,3,4,5,6,7,8};
+        //Korf's 100 random 15-puzzle instances, one per line as the instance number followed by the 16 tiles
+        public static final String KORF_FILE = "korf100.txt";
+        private static final int WARMUP_ITERATIONS = 5;
+        private static final int ITERATIONS = 5;
+        private static final long ITERATION_NANOS = 500000000L;
 
-        //initialize the frontier using the initial state of problem
-        PriorityQueue<Node> frontier = new PriorityQueue<Node>(nodeComparator);
-        frontier.add(root);
+        //option of a forked JVM running a single benchmark
+        public static final String FORK_OPTION = "--fork";
 
-        //loop do
-        int searchCost = 0;
-        while(true) {
-            if(searchCost > 7000000) {
-                System.out.println("Not enough memory to reach solution.");
-                System.out.println("search cost > 7,000,000 nodes");
-                break;
-            }
+        //sink for benchmark results so the JIT can not remove the work
+        private static volatile long sink;
 
-            //if the frontier is empty then return failure
-            if(frontier.isEmpty()) break;
-            //choose node with lowest cost and remove from frontier
-            Node current = frontier.remove();
+        //function to generate seeded solvable puzzles of an exact solution depth
+        public static long [] puzzlesOfDepth(int depth, int count, long seed) {
+            InstanceGenerator generator = new InstanceGenerator(EIGHT_PUZZLE, seed * 31 + depth);
+            long [] puzzles = new long [count];
+            for(int n = 0; n < count; n++)
+                puzzles[n] = generator.next(depth);
+            return puzzles;
+        }
 
-            //if the node contains the goal state, return the solution node
-            if (Arrays.equals(current.getPuzzleConfig(),solutionConfig)) {
-                current.setSearchCost(searchCost);
-                return current;
+        //function to generate seeded puzzles of a size by random walks of the blank from the solution state
+        //walks never undo their previous move, the solution depth is at most the walk length
+        public static long [] randomWalkPuzzles(BoardSize size, int walkLength, int count, long seed) {
+            Random random = new Random(seed * 31 + size.cells * 1000 + walkLength);
+            long [] puzzles = new long [count];
+            for(int n = 0; n < count; n++) {
+                long board = size.solution;
+                int blank = 0;
+                int previous = -1;
+                for(int step = 0; step < walkLength; step++) {
+                    int d = random.nextInt(4);
+                    int target = size.neighbors[blank][d];
+                    if(target < 0 || d == (previous ^ 1)) {
+                        step--;
+                        continue;
+                    }
+                    board = moveBlank(board, blank, target);
+                    blank = target;
+                    previous = d;
+                }
+                puzzles[n] = board;
             }
-
-            //expand the chosen node and add leaves to frontier and count expanded node
-            makeLeaves(current,frontier,x);
-            searchCost++;
+            return puzzles;
         }
-        return null;
-    }
-
-    //A* graph search
-    public static Node aStarGraphSearch(Node root, int x) {
 
-        //initialize solution config
-        int [] solutionConfig = {0,1,2,3,4,5,6,7,8};
-
-        //initialize the frontier using the initial state of problem
-        PriorityQueue<Node> frontier = new PriorityQueue<Node>(nodeComparator);
-        frontier.add(root);
+        //function to read 15-puzzle instances, one per line with an optional leading instance number
+        public static List<int []> readInstances(String fileName) throws IOException {
+            List<int []> instances = new ArrayList<int []>();
+            for(String line : Files.readAllLines(Paths.get(fileName))) {
+                line = line.trim();
+                if(line.isEmpty()) continue;
+                String [] tokens = line.split("\\s+");
+                String tiles = String.join(" ", Arrays.copyOfRange(tokens, tokens.length == 17 ? 1 : 0, tokens.length));
+                if(!isValidPuzzle(tiles, 4) || !isSolvable(parsePuzzle(tiles))) throw new IllegalArgumentException("Invalid 15-puzzle instance: "+line);
+                instances.add(parsePuzzle(tiles));
+            }
+            return instances;
+        }
 
-        //initialize the explored set to be empty
-        HashSet<Node> explored = new HashSet<Node>();
+        //function to solve each 15-puzzle instance of a file once with IDA* and manhattan distance
+        //prints test# solutionDepth searchCost runtime like the data files, then the totals
+        public static void runInstances(String fileName) throws IOException {
+            if(!Files.exists(Paths.get(fileName))) {
+                System.out.println("Instance file "+fileName+" not found.");
+                return;
+            }
+            List<int []> instances = readInstances(fileName);
+            long totalCost = 0;
+            long totalNanos = 0;
+            for(int i = 0; i < instances.size(); i++) {
+                Node root = new Node();
+                root.setPuzzleConfig(instances.get(i));
+                List<IterationStats> iterations = new ArrayList<IterationStats>();
+                long start = System.nanoTime();
+                Node sol = idaStarSearch(root, 2, iterations);
+                long nanos = System.nanoTime() - start;
+                long cost = 0;
+                for(IterationStats iteration : iterations) cost += iteration.getExpansions();
+                totalCost += cost;
+                totalNanos += nanos;
+                System.out.println((i + 1)+" "+sol.getDepth()+" "+cost+" "+(nanos/1000000.0));
+            }
+            System.out.println("Total Search Cost: "+totalCost+" | Runtime(ms): "+(totalNanos/1000000.0));
+        }
 
-        //loop do
-        int searchCost = 0;
-        while(true) {
-            //if the frontier is empty then return failure
-            if(frontier.isEmpty()) break;
-            //choose node with lowest cost and remove from frontier
-            Node current = frontier.remove();
+        //function to solve seeded 15-puzzle random walks with IDA* and then parallel IDA* on pools of 1 up to a number of threads
+        //prints the runtime of each and the speedup of parallel IDA* over IDA*, all runs must find solutions of the same depth
+        public static void runParallel(int maxThreads) {
+            BoardSize fifteen = BoardSize.of(4);
+            long [] puzzles = randomWalkPuzzles(fifteen, PARALLEL_WALK_LENGTH, PUZZLES_PER_DEPTH, SEED);
+            int [] depths = new int [puzzles.length];
 
-            //if the node contains the goal state, return the solution node
-            if (Arrays.equals(current.getPuzzleConfig(),solutionConfig)) {
-                current.setSearchCost(searchCost);
-                return current;
+            //warm up both searches before timing them
+            for(int i = 0; i < puzzles.length; i++) {
+                depths[i] = idaStarSearch(root(puzzles[i], fifteen), 2).getDepth();
+                parallelIdaStarSearch(root(puzzles[i], fifteen), 2);
+            }
+            long start = System.nanoTime();
+            long cost = 0;
+            for(long puzzle : puzzles) cost += searchCost(idaStarSearch(root(puzzle, fifteen), 2));
+            long sequential = System.nanoTime() - start;
+            System.out.println(String.format("%-8s %12s %14s %8s", "Threads", "Runtime(ms)", "Search Cost", "Speedup"));
+            System.out.println(String.format("%-8s %12.1f %14d %8.2f", "IDA*", sequential / 1e6, cost, 1.0));
+            for(int threads = 1; threads <= maxThreads; threads <<= 1) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                start = System.nanoTime();
+                cost = 0;
+                for(int i = 0; i < puzzles.length; i++) {
+                    Node sol = parallelIdaStarSearch(root(puzzles[i], fifteen), 2, pool);
+                    if(sol.getDepth() != depths[i]) throw new IllegalStateException("Parallel IDA* found depth "+sol.getDepth()+" instead of "+depths[i]);
+                    cost += searchCost(sol);
+                }
+                long nanos = System.nanoTime() - start;
+                pool.shutdown();
+                System.out.println(String.format("%-8d %12.1f %14d %8.2f", threads, nanos / 1e6, cost, (double) sequential / nanos));
+                if(threads < maxThreads && threads << 1 > maxThreads) threads = maxThreads >> 1;
             }
-
-            //add chosen node to explored set
-            explored.add(current);
-            //expand the chosen node and add leaves to frontier, only if not in frontier or explored set
-            makeLeaves(current,frontier,explored,x);
-            //count expanded node
-            searchCost++;
         }
 
-        return null;
-    }
+        //function to solve seeded 15-puzzle random walks with weighted A* of each weight and with ARA* search
+        //prints the mean time to the first solution, expansions, mean and worst solution depth over the optimal and mean proven bound
+        public static void runWeighted() {
+            BoardSize fifteen = BoardSize.of(4);
+            long [] puzzles = randomWalkPuzzles(fifteen, PARALLEL_WALK_LENGTH, PUZZLES_PER_DEPTH, SEED);
+            int [] optimal = new int [puzzles.length];
+            for(int i = 0; i < puzzles.length; i++)
+                optimal[i] = idaStarSearch(root(puzzles[i], fifteen), 5).getDepth();
+            System.out.println(String.format("%-10s %14s %12s %10s %10s %10s", "Weight", "First(ms)", "Expanded", "Quality", "Worst", "Bound"));
+            for(double weight : WEIGHTS) {
+                long nanos = 0;
+                long expanded = 0;
+                double quality = 0;
+                double worst = 0;
+                double bound = 0;
+                for(int i = 0; i < puzzles.length; i++) {
+                    List<AnytimeSolution> solutions = new ArrayList<AnytimeSolution>();
+                    araStarSearch(root(puzzles[i], fifteen), 5, weight, 0, Long.MAX_VALUE, solutions);
+                    AnytimeSolution first = solutions.get(0);
+                    double ratio = (double) first.getSolution().getDepth() / optimal[i];
+                    nanos += first.getNanos();
+                    expanded += first.getExpansions();
+                    quality += ratio / puzzles.length;
+                    worst = Math.max(worst, ratio);
+                    bound += first.getBound() / puzzles.length;
+                }
+                System.out.println(String.format("%-10s %14.3f %12d %10.4f %10.4f %10.4f", "WA* "+weight,
+                        nanos / 1e6 / puzzles.length, expanded / puzzles.length, quality, worst, bound));
+            }
 
-    //function to print solution path
-    public static void printSolutionPath(Node n) {
-        Node current = n;
-        System.out.println("GOAL STATE");
-        while(current != null) {
-            int d = current.getDepth();
-            int h = current.getHeuristic();
-            int c = current.getCost();
-            printPuzzle(current.getPuzzleConfig());
-            System.out.println();
-            if(d != 0) {
-                System.out.println("depth: "+d);
-                System.out.println("heuristic: "+h);
-                System.out.println("cost: "+c);
-                System.out.println(" /\\");
-                System.out.println("/  \\");
-                System.out.println(" ||");
-                System.out.println(" ||");
+            //ARA* from the highest weight, its first solution and the last before the deadline
+            long firstNanos = 0;
+            long lastNanos = 0;
+            double firstQuality = 0;
+            double lastQuality = 0;
+            double lastBound = 0;
+            for(int i = 0; i < puzzles.length; i++) {
+                List<AnytimeSolution> solutions = new ArrayList<AnytimeSolution>();
+                araStarSearch(root(puzzles[i], fifteen), 5, WEIGHTS[WEIGHTS.length - 1], ARA_WEIGHT_STEP, ARA_DEADLINE_NANOS, solutions);
+                AnytimeSolution first = solutions.get(0);
+                AnytimeSolution last = solutions.get(solutions.size() - 1);
+                firstNanos += first.getNanos();
+                lastNanos += last.getNanos();
+                firstQuality += (double) first.getSolution().getDepth() / optimal[i] / puzzles.length;
+                lastQuality += (double) last.getSolution().getDepth() / optimal[i] / puzzles.length;
+                lastBound += last.getBound() / puzzles.length;
             }
-            current = current.parent;
+            System.out.println("ARA* | First(ms): "+(firstNanos / 1e6 / puzzles.length)+" | First Quality: "+firstQuality
+                    +" | Last(ms): "+(lastNanos / 1e6 / puzzles.length)+" | Last Quality: "+lastQuality+" | Last Bound: "+lastBound);
         }
-        System.out.println("INITIAL STATE");
-    }
 
-    //function to test and print algorithms performance
-    public static void testAlgorithms () throws FileNotFoundException, UnsupportedEncodingException {
+        //function to run a workload for warmup and measured iterations and print its results
+        public static void measure(String name, Workload workload) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+            long thread = Thread.currentThread().getId();
+            double [] opsPerSecond = new double [ITERATIONS];
+            long totalOps = 0;
+            long totalNanos = 0;
+            long totalBytes = 0;
+            long gcCount = 0;
+            long gcMillis = 0;
+            for(int it = -WARMUP_ITERATIONS; it < ITERATIONS; it++) {
+                long gcCountStart = gcCount();
+                long gcMillisStart = gcMillis();
+                long bytes = threads.getThreadAllocatedBytes(thread);
+                long start = System.nanoTime();
+                long end = start;
+                long ops = 0;
+                long result = 0;
+                //run the workload until the iteration time is used
+                while(end - start < ITERATION_NANOS) {
+                    result += workload.run((int) ops++);
+                    end = System.nanoTime();
+                }
+                sink += result;
+                if(it < 0) continue;
+                opsPerSecond[it] = ops * 1e9 / (end - start);
+                totalOps += ops;
+                totalNanos += end - start;
+                totalBytes += threads.getThreadAllocatedBytes(thread) - bytes;
+                gcCount += gcCount() - gcCountStart;
+                gcMillis += gcMillis() - gcMillisStart;
+            }
 
-        //data files
-        PrintWriter writer1 = new PrintWriter("ASGSH1Data.txt", "UTF-8");
-        PrintWriter writer2 = new PrintWriter("ASGShH2Data.txt", "UTF-8");
-        PrintWriter writer3 = new PrintWriter("ASTSH1Data.txt", "UTF-8");
-        PrintWriter writer4 = new PrintWriter("ASTSH2Data.txt", "UTF-8");
+            //mean and standard deviation of throughput over the measured iterations
+            double mean = 0;
+            for(double ops : opsPerSecond) mean += ops / ITERATIONS;
+            double variance = 0;
+            for(double ops : opsPerSecond) variance += (ops - mean) * (ops - mean) / (ITERATIONS - 1);
+            System.out.println(String.format("%-32s %14.1f +- %-12.1f %14.1f %12.1f %8.1f %8d %8d",
+                    name, mean, Math.sqrt(variance), (double) totalNanos / totalOps,
+                    (double) totalBytes / totalOps, totalBytes / (totalNanos / 1e9) / (1 << 20), gcCount, gcMillis));
+        }
 
-        long start = System.currentTimeMillis();
-        //for each algorithm with each heuristic print depth, search cost, execution time
-        int tests = 1000;
-        for(int i = 0; i < tests; i++) {
+        private static long gcCount() {
+            long count = 0;
+            for(java.lang.management.GarbageCollectorMXBean gc : java.lang.management.ManagementFactory.getGarbageCollectorMXBeans())
+                count += Math.max(0, gc.getCollectionCount());
+            return count;
+        }
 
-            //generate a solvable problem
-            Node root = new Node();
-            int [] config = randomPuzzle();
-            while(!isSolvable(config))
-                config = randomPuzzle();
-            root.setPuzzleConfig(config);
+        private static long gcMillis() {
+            long millis = 0;
+            for(java.lang.management.GarbageCollectorMXBean gc : java.lang.management.ManagementFactory.getGarbageCollectorMXBeans())
+                millis += Math.max(0, gc.getCollectionTime());
+            return millis;
+        }
 
-            //generate solution with each algorithm and heuristic
-            //time run time for each algorithm
-            long start1 = System.currentTimeMillis();
-            Node sol1 = aStarGraphSearch(root,1);
-            long end1 = System.currentTimeMillis();
+        //function to run every benchmark whose name contains the filter, each in a forked JVM
+        //a JVM that ran other workloads first has compiled the shared call sites for them, which skews the later results
+        public static void run(String filter) throws IOException {
+            Map<String, Workload> benchmarks = benchmarks();
+            System.out.println(String.format("%-32s %30s %14s %12s %8s %8s %8s",
+                    "Benchmark", "ops/s", "ns/op", "B/op", "MB/s", "gc", "gc.ms"));
+            for(String name : benchmarks.keySet())
+                if(filter == null || name.contains(filter))
+                    fork(name);
+        }
 
-            long start2 = System.currentTimeMillis();
-            Node sol2 = aStarGraphSearch(root,2);
-            long end2 = System.currentTimeMillis();
+        //function to run one benchmark in this JVM, the work of a forked JVM
+        public static void runForked(String name) {
+            Workload workload = benchmarks().get(name);
+            if(workload == null) throw new IllegalArgumentException("Unknown benchmark: "+name);
+            measure(name, workload);
+        }
 
-            long start3 = System.currentTimeMillis();
-            Node sol3 = aStarTreeSearch(root,1);
-            long end3 = System.currentTimeMillis();
+        //function to run one benchmark in a new JVM with the same options and class path, printing its results
+        private static void fork(String name) throws IOException {
+            List<String> command = new ArrayList<String>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(java.lang.management.ManagementFactory.getRuntimeMXBean().getInputArguments());
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(Puzzle.class.getName());
+            command.add("bench");
+            command.add(FORK_OPTION);
+            command.add(name);
+            try {
+                int status = new ProcessBuilder(command).inheritIO().start().waitFor();
+                if(status != 0) System.out.println(name+" failed with exit status "+status);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while running "+name);
+            }
+        }
 
-            long start4 = System.currentTimeMillis();
-            Node sol4 = aStarTreeSearch(root,2);
-            long end4 = System.currentTimeMillis();
+        //function to build every benchmark's workload by name, also wrapped by the JMH suite in jmh/
+        static Map<String, Workload> benchmarks() {
+            //fixed puzzle sets, every benchmark over all depths and the searches per depth
+            final long [] mixed = new long [DEPTHS.length * PUZZLES_PER_DEPTH];
+            final Map<Integer, long []> byDepth = new LinkedHashMap<Integer, long []>();
+            for(int d = 0; d < DEPTHS.length; d++) {
+                long [] puzzles = puzzlesOfDepth(DEPTHS[d], PUZZLES_PER_DEPTH, SEED);
+                byDepth.put(DEPTHS[d], puzzles);
+                System.arraycopy(puzzles, 0, mixed, d * PUZZLES_PER_DEPTH, PUZZLES_PER_DEPTH);
+            }
+            final int [][] mixedConfigs = new int [mixed.length][];
+            final Node [] mixedNodes = new Node [mixed.length];
+            for(int i = 0; i < mixed.length; i++) {
+                mixedConfigs[i] = unpackPuzzle(mixed[i]);
+                mixedNodes[i] = new Node();
+                mixedNodes[i].setPuzzleConfig(mixedConfigs[i]);
+                mixedNodes[i].setHeuristic(h2(mixed[i]));
+            }
 
-            //write solution data to file if solution was found within 800,000 nodes
-            //format: test# depth searchCost runtime
-            if(sol1 != null) writer1.println((i+1)+" "+sol1.getDepth()+" "+sol1.getSearchCost()+" "+(end1 - start1));
-            else  writer1.println((i+1));
+            Map<String, Workload> benchmarks = new LinkedHashMap<String, Workload>();
+            benchmarks.put("h1", i -> h1(mixed[i % mixed.length]));
+            benchmarks.put("h2", i -> h2(mixed[i % mixed.length]));
+            benchmarks.put("h5", i -> h5(mixed[i % mixed.length]));
+            benchmarks.put("h6", i -> h6(mixed[i % mixed.length]));
+            benchmarks.put("h1.array", i -> h1(mixedConfigs[i % mixed.length]));
+            benchmarks.put("h2.array", i -> h2(mixedConfigs[i % mixed.length]));
+            benchmarks.put("moveLeft", i -> { int [] c = moveLeft(mixedConfigs[i % mixed.length]); return c == null ? 0 : c[0]; });
+            benchmarks.put("moveRight", i -> { int [] c = moveRight(mixedConfigs[i % mixed.length]); return c == null ? 0 : c[0]; });
+            benchmarks.put("moveUp", i -> { int [] c = moveUp(mixedConfigs[i % mixed.length]); return c == null ? 0 : c[0]; });
+            benchmarks.put("moveDown", i -> { int [] c = moveDown(mixedConfigs[i % mixed.length]); return c == null ? 0 : c[0]; });
+            final OpenList leaves = new IndexedOpenList(nodeComparator, false);
+            benchmarks.put("makeLeaves", i -> {
+                leaves.clear();
+                makeLeaves(mixedNodes[i % mixed.length], leaves, 2);
+                return leaves.size();
+            });
+            final SearchArena arena = new SearchArena();
+            final SearchArena bucketArena = new SearchArena(true);
 
-            if(sol2 != null) writer2.println((i+1)+" "+sol2.getDepth()+" "+sol2.getSearchCost()+" "+(end2 - start2));
-            else  writer2.println((i+1));
+            //15-puzzle sets of seeded random walks, manhattan distance only
+            final BoardSize fifteen = BoardSize.of(4);
+            final long [] walks = randomWalkPuzzles(fifteen, WALK_LENGTHS[WALK_LENGTHS.length - 1], PUZZLES_PER_DEPTH, SEED);
+            benchmarks.put("h2.fifteen", i -> h2(walks[i % walks.length], fifteen));
+            benchmarks.put("h5.fifteen", i -> h5(walks[i % walks.length], fifteen));
+            benchmarks.put("h6.fifteen", i -> h6(walks[i % walks.length], fifteen));
+            for(final int length : WALK_LENGTHS) {
+                final long [] puzzles = randomWalkPuzzles(fifteen, length, PUZZLES_PER_DEPTH, SEED);
+                benchmarks.put("idaStarSearch.fifteen.h2.w"+length, i -> searchCost(idaStarSearch(root(puzzles[i % puzzles.length], fifteen), 2)));
+                benchmarks.put("idaStarSearch.fifteen.h5.w"+length, i -> searchCost(idaStarSearch(root(puzzles[i % puzzles.length], fifteen), 5)));
+                benchmarks.put("idaStarSearch.fifteen.h6.w"+length, i -> searchCost(idaStarSearch(root(puzzles[i % puzzles.length], fifteen), 6)));
+                benchmarks.put("parallelIdaStarSearch.fifteen.h2.w"+length, i -> searchCost(parallelIdaStarSearch(root(puzzles[i % puzzles.length], fifteen), 2)));
+                benchmarks.put("aStarGraphSearch.fifteen.h2.w"+length, i -> searchCost(aStarGraphSearch(root(puzzles[i % puzzles.length], fifteen), 2, arena)));
+                benchmarks.put("aStarGraphSearch.fifteen.bucket.h2.w"+length, i -> searchCost(aStarGraphSearch(root(puzzles[i % puzzles.length], fifteen), 2, bucketArena)));
+                benchmarks.put("externalAStarSearch.fifteen.h2.w"+length, i -> searchCost(externalAStarSearch(root(puzzles[i % puzzles.length], fifteen), 2)));
+            }
+            for(final Map.Entry<Integer, long []> group : byDepth.entrySet()) {
+                final long [] puzzles = group.getValue();
+                for(int x = 1; x <= 3; x++) {
+                    final int h = x;
+                    benchmarks.put("aStarGraphSearch.h"+h+".d"+group.getKey(), i -> searchCost(aStarGraphSearch(root(puzzles[i % puzzles.length]), h, arena)));
+                    benchmarks.put("aStarGraphSearch.bucket.h"+h+".d"+group.getKey(), i -> searchCost(aStarGraphSearch(root(puzzles[i % puzzles.length]), h, bucketArena)));
+                    if(h > 1 || group.getKey() <= 20) {
+                        benchmarks.put("aStarTreeSearch.h"+h+".d"+group.getKey(), i -> searchCost(aStarTreeSearch(root(puzzles[i % puzzles.length]), h, arena, TREE_SEARCH_LIMIT)));
+                        benchmarks.put("aStarTreeSearch.bucket.h"+h+".d"+group.getKey(), i -> searchCost(aStarTreeSearch(root(puzzles[i % puzzles.length]), h, bucketArena, TREE_SEARCH_LIMIT)));
+                    }
+                }
+            }
+            return benchmarks;
+        }
 
-            if(sol3 != null) writer3.println((i+1)+" "+sol3.getDepth()+" "+sol3.getSearchCost()+" "+(end3 - start3));
-            else  writer3.println((i+1));
+        private static Node root(long board) {
+            return root(board, EIGHT_PUZZLE);
+        }
 
-            if(sol4 != null) writer4.println((i+1)+" "+sol4.getDepth()+" "+sol4.getSearchCost()+" "+(end4 - start4));
-            else  writer4.println((i+1));
+        private static Node root(long board, BoardSize size) {
+            Node root = new Node();
+            root.setPuzzleConfig(unpackPuzzle(board, size));
+            return root;
+        }
 
-            //print current test# and program runtime
-            System.out.println("test: "+(i+1)+" | program runtime: "+((((double)System.currentTimeMillis()/1000)/60) - (((double)start/1000)/60)));
+        private static long searchCost(Node solution) {
+            return solution == null ? -1 : solution.getSearchCost();
         }
-        writer1.close();
-        writer2.close();
-        writer3.close();
-        writer4.close();
     }
 
     //function to solve a random puzzle configuration
@@ -521,31 +5019,25 @@ public class Puzzle {
 
         //generate a solvable problem
         Node root = new Node();
-        int [] config = randomPuzzle();
-        while(!isSolvable(config))
-            config = randomPuzzle();
-        root.setPuzzleConfig(config);
+        root.setPuzzleConfig(new InstanceGenerator(EIGHT_PUZZLE).nextPuzzle());
 
         //obtain solution
-        Node sol = null;
-        long start = 0;
-        long end = 0;
-        if(a == 1 && (h == 1 || h == 2)) {
-            start = System.currentTimeMillis();
-            sol = aStarTreeSearch(root,h);
-            end = System.currentTimeMillis();
-        }
-        if(a == 2 && (h == 1 || h == 2)) {
-            start = System.currentTimeMillis();
-            sol = aStarGraphSearch(root,h);
-            end = System.currentTimeMillis();
-        }
+        DirectionStats forward = new DirectionStats();
+        DirectionStats backward = new DirectionStats();
+        long start = System.nanoTime();
+        Node sol = a == 5 && isHeuristic(h) ? bidirectionalSearch(root, h, forward, backward) : solve(root, a, h);
+        long end = System.nanoTime();
 
         //display stats & path
         if(sol != null) {
             System.out.println("Depth: "+ sol.getDepth());
             System.out.println("Search Cost: "+sol.getSearchCost());
-            System.out.println("Runtime(ms): "+(end-start));
+            System.out.println("Moves: "+solutionMoves(sol));
+            System.out.println("Runtime(ms): "+((end-start)/1000000.0));
+            if(a == 5) {
+                System.out.println("Forward Search Cost: "+forward.getExpansions()+" | Runtime(ms): "+(forward.getNanos()/1000000.0));
+                System.out.println("Backward Search Cost: "+backward.getExpansions()+" | Runtime(ms): "+(backward.getNanos()/1000000.0));
+            }
 
             Scanner s = new Scanner(System.in);
             System.out.println("Press <ENTER> to show solution path.");
@@ -565,27 +5057,44 @@ public class Puzzle {
         if(config != null) {
             root.setPuzzleConfig(config);
 
-            //obtain solution
-            Node sol = null;
-            long start = 0;
-            long end = 0;
-            if(a == 1 && (h == 1 || h == 2)) {
-                start = System.currentTimeMillis();
-                sol = aStarTreeSearch(root,h);
-                end = System.currentTimeMillis();
-            }
-            if(a == 2 && (h == 1 || h == 2)) {
-                start = System.currentTimeMillis();
-                sol = aStarGraphSearch(root,h);
-                end = System.currentTimeMillis();
+            //obtain solution, from the cache if this puzzle or its reflection was solved before
+            //ARA* solutions depend on how far it got before its deadline, so they are never cached
+            SolutionCache cache = solutionCache();
+            boolean cacheable = a != 9;
+            DirectionStats forward = new DirectionStats();
+            DirectionStats backward = new DirectionStats();
+            long start = System.nanoTime();
+            Node sol = cacheable ? cache.get(root, a, h) : null;
+            boolean cached = sol != null;
+            if(!cached) {
+                sol = a == 5 && isHeuristic(h) ? bidirectionalSearch(root, h, forward, backward) : solve(root, a, h);
+                if(cacheable) cache.put(root, a, h, sol);
             }
+            long end = System.nanoTime();
 
             //display stats & path
             if(sol != null) {
                 //display stats & path
                 System.out.println("Depth: "+ sol.getDepth());
                 System.out.println("Search Cost: "+sol.getSearchCost());
-                System.out.println("Runtime(ms): "+(end-start));
+                System.out.println("Moves: "+solutionMoves(sol));
+                System.out.println("Runtime(ms): "+((end-start)/1000000.0));
+                if(a == 5 && !cached) {
+                    System.out.println("Forward Search Cost: "+forward.getExpansions()+" | Runtime(ms): "+(forward.getNanos()/1000000.0));
+                    System.out.println("Backward Search Cost: "+backward.getExpansions()+" | Runtime(ms): "+(backward.getNanos()/1000000.0));
+                }
+                if(cacheable)
+                    System.out.println("Cache: "+(cached ? "hit" : "miss")+" | Hits: "+cache.getHits()+" | Misses: "+cache.getMisses()+" | Evictions: "+cache.getEvictions());
+
+                //keep new solutions for later runs
+                if(cacheable && !cached) {
+                    try {
+                        cache.save(SolutionCache.FILE_NAME);
+                    }
+                    catch (IOException e) {
+                        System.out.println("Solution cache could not be saved.");
+                    }
+                }
 
                 Scanner s = new Scanner(System.in);
                 System.out.println("Press <ENTER> to show solution path.");
@@ -597,6 +5106,63 @@ public class Puzzle {
         }
     }
 
+    //function to solve puzzles streamed from a file, or standard input if there is none, writing a line for each
+    //result lines are test# solutionDepth searchCost nanos moves in input order, a puzzle without a solution gives only its test#
+    //search latency percentiles and the slowest search are written to standard error at the end
+    public static void runStreamSolver(int a, int h, String fileName) throws IOException {
+        ReadableByteChannel channel = fileName == null || fileName.equals("-")
+                ? Channels.newChannel(System.in)
+                : FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+        final Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.US_ASCII), 1 << 16);
+
+        try (BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.US_ASCII.newDecoder(), 1 << 16), 1 << 16)) {
+            final long [] lastFlush = {System.nanoTime()};
+            final LatencyHistogram latency = new LatencyHistogram();
+            final BatchResult [] slowest = new BatchResult [1];
+            new BatchSolver(a, h).solve(reader, result -> {
+                SearchMetrics metrics = result.getMetrics();
+                if(metrics != null) {
+                    latency.record(metrics.getWallNanos());
+                    if(slowest[0] == null || metrics.getWallNanos() > slowest[0].getMetrics().getWallNanos()) slowest[0] = result;
+                }
+                try {
+                    Node sol = result.getSolution();
+                    out.write(Long.toString(result.getIndex() + 1));
+                    if(result.getError() != null) out.write(" error: "+result.getError());
+                    if(sol != null) {
+                        out.write(" "+sol.getDepth()+" "+sol.getSearchCost()+" "+result.getNanos());
+                        if(sol.getDepth() > 0) out.write(" "+solutionMoves(sol));
+                    }
+                    out.write('\n');
+                    //flush at least every 100 ms while results keep coming
+                    if(System.nanoTime() - lastFlush[0] > 100000000L) {
+                        out.flush();
+                        lastFlush[0] = System.nanoTime();
+                    }
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, () -> {
+                //nothing more is ready, write out what is so it does not wait for the next line of input
+                try {
+                    out.flush();
+                    lastFlush[0] = System.nanoTime();
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+            System.err.println("Latency | "+latency.summary());
+            if(slowest[0] != null)
+                System.err.println("Slowest: "+(slowest[0].getIndex() + 1)+" | "+slowest[0].getMetrics());
+        }
+        finally {
+            out.flush();
+        }
+    }
+
     //function to run the main program
     public static void runPuzzleSolver() {
 
@@ -616,10 +5182,20 @@ public class Puzzle {
         System.out.print(
                         "(1) A* Tree Search\n"+
                         "(2) A* Graph Search\n"+
+                        "(3) Distance Table\n"+
+                        "(4) IDA* Search\n"+
+                        "(5) Bidirectional A* Search\n"+
+                        "(6) SMA* Search\n"+
+                        "(7) Parallel IDA* Search\n"+
+                        "(8) Weighted A* Search\n"+
+                        "(9) ARA* Search\n"+
+                        "(10) External A* Search\n"+
                         "Choose an algorithm: "
         );
-        int a = Character.getNumericValue(s.nextLine().charAt(0));
-        if(a != 1 && a != 2) {
+        //the only two digit option is read whole
+        String algorithm = s.nextLine().trim();
+        int a = algorithm.equals("10") ? 10 : Character.getNumericValue(algorithm.charAt(0));
+        if(!isAlgorithm(a)) {
             System.out.println("Invalid choice.");
             return;
         }
@@ -627,10 +5203,14 @@ public class Puzzle {
         System.out.print(
                         "(1) H1: Misplaced Tiles\n"+
                         "(2) H2: Manhattan Distance\n"+
+                        "(3) H3: Pattern Database\n"+
+                        "(4) H4: Distance Table\n"+
+                        "(5) H5: Manhattan Distance + Linear Conflict\n"+
+                        "(6) H6: Walking Distance\n"+
                         "Choose a heuristic: "
         );
         int h = Character.getNumericValue(s.nextLine().charAt(0));
-        if(h != 1 && h != 2) {
+        if(!isHeuristic(h)) {
             System.out.println("Invalid choice.");
             return;
         }
@@ -649,7 +5229,119 @@ public class Puzzle {
         }
     }
 
+    //default port of server mode
+    public static final int SERVER_PORT = 8080;
+
     public static void main(String [] args) throws IOException{
+        //15-puzzle instance mode: java Puzzle bench korf [file]
+        if(args.length > 1 && args[0].equals("bench") && args[1].equals("korf")) {
+            Benchmark.runInstances(args.length > 2 ? args[2] : Benchmark.KORF_FILE);
+            return;
+        }
+        //server mode: java Puzzle serve [port] [workers]
+        if(args.length > 0 && args[0].equals("serve")) {
+            if((args.length > 1 && !isInt(args[1])) || (args.length > 2 && (!isInt(args[2]) || Integer.parseInt(args[2]) < 1))) {
+                System.err.println("Usage: java Puzzle serve [port] [workers]");
+                System.exit(2);
+            }
+            SolverServer server = new SolverServer(args.length > 1 ? Integer.parseInt(args[1]) : SERVER_PORT,
+                    args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors());
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+            System.out.println("Listening on http://127.0.0.1:"+server.getPort()+"/solve");
+            return;
+        }
+        //weighted search mode: java Puzzle bench weighted
+        if(args.length > 1 && args[0].equals("bench") && args[1].equals("weighted")) {
+            Benchmark.runWeighted();
+            return;
+        }
+        //parallel speedup mode: java Puzzle bench parallel [maxThreads]
+        if(args.length > 1 && args[0].equals("bench") && args[1].equals("parallel")) {
+            Benchmark.runParallel(args.length > 2 && isInt(args[2]) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors());
+            return;
+        }
+        //result log modes: java Puzzle results import textFile [binaryFile] and java Puzzle results binaryFile
+        if(args.length > 0 && args[0].equals("results")) {
+            try {
+                if(args.length > 2 && args[1].equals("import")) {
+                    String logFile = args.length > 3 ? args[3] : args[2].replaceFirst("\\.txt$", "") + ".bin";
+                    System.out.println(ResultLog.importText(args[2], logFile)+" results written to "+logFile);
+                    return;
+                }
+                if(args.length == 2 && !args[1].equals("import")) {
+                    ResultLog.read(args[1]).printSummary();
+                    return;
+                }
+            }
+            catch (NoSuchFileException e) {
+                System.err.println("No such file: "+e.getFile());
+            }
+            catch (IOException | IllegalArgumentException e) {
+                System.err.println(e.getMessage());
+            }
+            System.err.println("Usage: java Puzzle results <binaryFile> | java Puzzle results import <textFile> [binaryFile]");
+            System.exit(2);
+        }
+        //instance mode: java Puzzle generate width count [seed] [depth]
+        if(args.length > 0 && args[0].equals("generate")) {
+            if(args.length < 3 || !isInt(args[1]) || !BoardSize.isSupported(Integer.parseInt(args[1])) || !isInt(args[2])
+                    || (args.length > 3 && !isLong(args[3])) || (args.length > 4 && !isInt(args[4]))) {
+                System.err.println("Usage: java Puzzle generate <width 2-4> <count> [seed] [depth]");
+                System.exit(2);
+            }
+            BoardSize size = BoardSize.of(Integer.parseInt(args[1]));
+            InstanceGenerator generator = args.length > 3 ? new InstanceGenerator(size, Long.parseLong(args[3])) : new InstanceGenerator(size);
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.US_ASCII), 1 << 16)) {
+                generator.write(out, Integer.parseInt(args[2]), args.length > 4 ? Integer.parseInt(args[4]) : -1);
+            }
+            catch (IllegalArgumentException e) {
+                System.err.println(e.getMessage());
+                System.exit(1);
+            }
+            return;
+        }
+        //streaming mode: java Puzzle batch algorithm heuristic [file]
+        if(args.length > 0 && args[0].equals("batch")) {
+            if(args.length < 3 || !isInt(args[1]) || !isInt(args[2])
+                    || !isAlgorithm(Integer.parseInt(args[1])) || !isHeuristic(Integer.parseInt(args[2]))) {
+                System.err.println("Usage: java Puzzle batch <algorithm 1-10> <heuristic 1-6> [file]");
+                System.exit(2);
+            }
+            try {
+                runStreamSolver(Integer.parseInt(args[1]), Integer.parseInt(args[2]), args.length > 3 ? args[3] : null);
+            }
+            catch (IllegalArgumentException | UncheckedIOException e) {
+                System.err.println(e.getMessage());
+                System.exit(1);
+            }
+            return;
+        }
+        //benchmark mode: java Puzzle bench [filter]
+        //forked benchmark mode: java Puzzle bench --fork name
+        if(args.length > 2 && args[0].equals("bench") && args[1].equals(Benchmark.FORK_OPTION)) {
+            Benchmark.runForked(args[2]);
+            return;
+        }
+        if(args.length > 0 && args[0].equals("bench")) {
+            Benchmark.run(args.length > 1 ? args[1] : null);
+            return;
+        }
+        //self-check modes: java Puzzle test heuristics and java Puzzle test ida [tests] [heuristic]
+        if(args.length > 0 && args[0].equals("test")) {
+            if(args.length == 2 && args[1].equals("heuristics")) {
+                if(!testHeuristics()) System.exit(1);
+                return;
+            }
+            if(args.length > 1 && args.length < 5 && args[1].equals("ida")
+                    && (args.length < 3 || (isInt(args[2]) && Integer.parseInt(args[2]) > 0))
+                    && (args.length < 4 || (isInt(args[3]) && isHeuristic(Integer.parseInt(args[3]))))) {
+                testIDAStar(args.length > 2 ? Integer.parseInt(args[2]) : 100, args.length > 3 ? Integer.parseInt(args[3]) : 2);
+                return;
+            }
+            System.err.println("Usage: java Puzzle test heuristics | java Puzzle test ida [tests] [heuristic 1-6]");
+            System.exit(2);
+        }
         runPuzzleSolver();
     }
 }
\ No newline at end of file
@@ -0,0 +1,139 @@
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+//JMH suite over the same workloads as java Puzzle bench, one benchmark per workload name
+//build with mvn package and run java -jar target/benchmarks.jar, pick workloads with -p workload=name,name
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class PuzzleBenchmarks {
+
+    //name of the workload in Puzzle.Benchmark
+    @Param({
+            "h1",
+            "h2",
+            "h5",
+            "h6",
+            "h1.array",
+            "h2.array",
+            "moveLeft",
+            "moveRight",
+            "moveUp",
+            "moveDown",
+            "makeLeaves",
+            "h2.fifteen",
+            "h5.fifteen",
+            "h6.fifteen",
+            "idaStarSearch.fifteen.h2.w20",
+            "idaStarSearch.fifteen.h5.w20",
+            "idaStarSearch.fifteen.h6.w20",
+            "parallelIdaStarSearch.fifteen.h2.w20",
+            "aStarGraphSearch.fifteen.h2.w20",
+            "aStarGraphSearch.fifteen.bucket.h2.w20",
+            "externalAStarSearch.fifteen.h2.w20",
+            "idaStarSearch.fifteen.h2.w30",
+            "idaStarSearch.fifteen.h5.w30",
+            "idaStarSearch.fifteen.h6.w30",
+            "parallelIdaStarSearch.fifteen.h2.w30",
+            "aStarGraphSearch.fifteen.h2.w30",
+            "aStarGraphSearch.fifteen.bucket.h2.w30",
+            "externalAStarSearch.fifteen.h2.w30",
+            "idaStarSearch.fifteen.h2.w40",
+            "idaStarSearch.fifteen.h5.w40",
+            "idaStarSearch.fifteen.h6.w40",
+            "parallelIdaStarSearch.fifteen.h2.w40",
+            "aStarGraphSearch.fifteen.h2.w40",
+            "aStarGraphSearch.fifteen.bucket.h2.w40",
+            "externalAStarSearch.fifteen.h2.w40",
+            "aStarGraphSearch.h1.d8",
+            "aStarGraphSearch.bucket.h1.d8",
+            "aStarTreeSearch.h1.d8",
+            "aStarTreeSearch.bucket.h1.d8",
+            "aStarGraphSearch.h2.d8",
+            "aStarGraphSearch.bucket.h2.d8",
+            "aStarTreeSearch.h2.d8",
+            "aStarTreeSearch.bucket.h2.d8",
+            "aStarGraphSearch.h3.d8",
+            "aStarGraphSearch.bucket.h3.d8",
+            "aStarTreeSearch.h3.d8",
+            "aStarTreeSearch.bucket.h3.d8",
+            "aStarGraphSearch.h1.d16",
+            "aStarGraphSearch.bucket.h1.d16",
+            "aStarTreeSearch.h1.d16",
+            "aStarTreeSearch.bucket.h1.d16",
+            "aStarGraphSearch.h2.d16",
+            "aStarGraphSearch.bucket.h2.d16",
+            "aStarTreeSearch.h2.d16",
+            "aStarTreeSearch.bucket.h2.d16",
+            "aStarGraphSearch.h3.d16",
+            "aStarGraphSearch.bucket.h3.d16",
+            "aStarTreeSearch.h3.d16",
+            "aStarTreeSearch.bucket.h3.d16",
+            "aStarGraphSearch.h1.d20",
+            "aStarGraphSearch.bucket.h1.d20",
+            "aStarTreeSearch.h1.d20",
+            "aStarTreeSearch.bucket.h1.d20",
+            "aStarGraphSearch.h2.d20",
+            "aStarGraphSearch.bucket.h2.d20",
+            "aStarTreeSearch.h2.d20",
+            "aStarTreeSearch.bucket.h2.d20",
+            "aStarGraphSearch.h3.d20",
+            "aStarGraphSearch.bucket.h3.d20",
+            "aStarTreeSearch.h3.d20",
+            "aStarTreeSearch.bucket.h3.d20",
+            "aStarGraphSearch.h1.d24",
+            "aStarGraphSearch.bucket.h1.d24",
+            "aStarGraphSearch.h2.d24",
+            "aStarGraphSearch.bucket.h2.d24",
+            "aStarTreeSearch.h2.d24",
+            "aStarTreeSearch.bucket.h2.d24",
+            "aStarGraphSearch.h3.d24",
+            "aStarGraphSearch.bucket.h3.d24",
+            "aStarTreeSearch.h3.d24",
+            "aStarTreeSearch.bucket.h3.d24",
+            "aStarGraphSearch.h1.d28",
+            "aStarGraphSearch.bucket.h1.d28",
+            "aStarGraphSearch.h2.d28",
+            "aStarGraphSearch.bucket.h2.d28",
+            "aStarTreeSearch.h2.d28",
+            "aStarTreeSearch.bucket.h2.d28",
+            "aStarGraphSearch.h3.d28",
+            "aStarGraphSearch.bucket.h3.d28",
+            "aStarTreeSearch.h3.d28",
+            "aStarTreeSearch.bucket.h3.d28"
+    })
+    public String workload;
+
+    //attributes
+    private Puzzle.Benchmark.Workload work;
+    private int i;
+
+    //function to build the workload's puzzles before it is measured
+    @Setup(Level.Trial)
+    public void setup() {
+        work = Puzzle.Benchmark.benchmarks().get(workload);
+        if(work == null) throw new IllegalArgumentException("Unknown workload: "+workload);
+        i = 0;
+    }
+
+    //function to run one operation of the workload, its result is consumed so the work can not be removed
+    @Benchmark
+    public void run(Blackhole blackhole) {
+        blackhole.consume(work.run(i++));
+    }
+}